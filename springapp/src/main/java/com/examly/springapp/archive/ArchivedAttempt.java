@@ -0,0 +1,54 @@
+package com.examly.springapp.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * One attempt as stored in a segment file. Carries the quiz title and student name so that
+ * archived rows can be served without the database. {@code points} is null for records written
+ * before exact points were archived.
+ */
+public record ArchivedAttempt(long id, long quizId, String quizTitle, Long studentId, String studentName,
+                              Integer score, Double points, Integer totalQuestions, long completedAt) {
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(id);
+        out.writeLong(quizId);
+        writeNullable(out, quizTitle);
+        out.writeLong(studentId != null ? studentId : -1L);
+        writeNullable(out, studentName);
+        out.writeInt(score != null ? score : Integer.MIN_VALUE);
+        out.writeDouble(points != null ? points : Double.NaN);
+        out.writeInt(totalQuestions != null ? totalQuestions : Integer.MIN_VALUE);
+        out.writeLong(completedAt);
+    }
+
+    static ArchivedAttempt readFrom(DataInput in, boolean withPoints) throws IOException {
+        long id = in.readLong();
+        long quizId = in.readLong();
+        String quizTitle = readNullable(in);
+        long studentId = in.readLong();
+        String studentName = readNullable(in);
+        int score = in.readInt();
+        double points = withPoints ? in.readDouble() : Double.NaN;
+        int totalQuestions = in.readInt();
+        long completedAt = in.readLong();
+        return new ArchivedAttempt(id, quizId, quizTitle, studentId >= 0 ? studentId : null, studentName,
+                score != Integer.MIN_VALUE ? score : null,
+                !Double.isNaN(points) ? points : null,
+                totalQuestions != Integer.MIN_VALUE ? totalQuestions : null,
+                completedAt);
+    }
+
+    private static void writeNullable(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
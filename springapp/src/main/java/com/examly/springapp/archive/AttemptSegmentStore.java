@@ -0,0 +1,357 @@
+package com.examly.springapp.archive;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only store of archived attempts on local disk.
+ *
+ * <p>Each archival run writes one immutable segment ({@code segment-N.seg}): a sequence of
+ * Deflate-compressed blocks of records. Its index ({@code segment-N.idx}) holds the block offsets
+ * and sizes, the id and completion-time range and the sorted quiz and student ids present, and is
+ * small enough to keep in memory. Reads pick segments from the index and inflate their blocks
+ * straight from a memory-mapped view of the segment file. Segments never change once written, so
+ * decoded segments are kept in a cache bounded by {@code quiz.archive.cache-records}.
+ *
+ * <p>An index is first written as {@code .idx.pending} and only renamed once the archived rows
+ * have been deleted from the database; see {@link #pendingSegments()}.
+ */
+@Component
+public class AttemptSegmentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptSegmentStore.class);
+    private static final int INDEX_MAGIC_V1 = 0x51415831; // "QAX1", without student ids
+    private static final int INDEX_MAGIC_V2 = 0x51415832; // "QAX2", records without points
+    private static final int INDEX_MAGIC = 0x51415833; // "QAX3"
+    private static final int RECORDS_PER_BLOCK = 1024;
+
+    private final Path dir;
+    private final List<SegmentIndex> segments = new CopyOnWriteArrayList<>();
+    private final Cache<Path, List<ArchivedAttempt>> decoded;
+
+    public AttemptSegmentStore(@Value("${quiz.archive.dir:data/archive}") String dir,
+                               @Value("${quiz.archive.cache-records:200000}") long cacheRecords) {
+        this.dir = Paths.get(dir);
+        this.decoded = Caffeine.newBuilder()
+                .maximumWeight(cacheRecords)
+                .weigher((Path file, List<ArchivedAttempt> attempts) -> attempts.size())
+                .build();
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(dir);
+        loadNewSegments();
+        if (!segments.isEmpty()) {
+            log.info("Opened {} archived attempt segments in {}", segments.size(), dir.toAbsolutePath());
+        }
+    }
+
+    /** Picks up segments committed by whichever node ran the archival. */
+    @Scheduled(fixedDelayString = "${quiz.archive.refresh-interval:60000}")
+    public void refresh() {
+        try {
+            int added = loadNewSegments();
+            if (added > 0) {
+                log.info("Loaded {} new archived attempt segments", added);
+            }
+        } catch (IOException ex) {
+            log.warn("Could not refresh archived attempt segments in {}", dir.toAbsolutePath(), ex);
+        }
+    }
+
+    private synchronized int loadNewSegments() throws IOException {
+        Set<Path> loaded = new HashSet<>();
+        segments.forEach(segment -> loaded.add(segment.file()));
+        List<Path> indexes;
+        try (Stream<Path> files = Files.list(dir)) {
+            indexes = files.filter(f -> f.toString().endsWith(".idx")).sorted().toList();
+        }
+        int added = 0;
+        for (Path file : indexes) {
+            if (!loaded.contains(segmentFileOf(file))) {
+                segments.add(readIndex(file));
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /** Writes a new segment and its pending index; returns the pending index file. */
+    public Path writeSegment(List<ArchivedAttempt> attempts) throws IOException {
+        long sequence = nextSequence();
+        Path segmentFile = dir.resolve(String.format("segment-%010d.seg", sequence));
+        List<Block> blocks = new ArrayList<>();
+        long minId = Long.MAX_VALUE, maxId = Long.MIN_VALUE, minTime = Long.MAX_VALUE, maxTime = Long.MIN_VALUE;
+        TreeSet<Long> quizIds = new TreeSet<>();
+        TreeSet<Long> studentIds = new TreeSet<>();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            for (int from = 0; from < attempts.size(); from += RECORDS_PER_BLOCK) {
+                List<ArchivedAttempt> chunk = attempts.subList(from, Math.min(attempts.size(), from + RECORDS_PER_BLOCK));
+                ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(raw);
+                for (ArchivedAttempt attempt : chunk) {
+                    attempt.writeTo(out);
+                    minId = Math.min(minId, attempt.id());
+                    maxId = Math.max(maxId, attempt.id());
+                    minTime = Math.min(minTime, attempt.completedAt());
+                    maxTime = Math.max(maxTime, attempt.completedAt());
+                    quizIds.add(attempt.quizId());
+                    if (attempt.studentId() != null) {
+                        studentIds.add(attempt.studentId());
+                    }
+                }
+                byte[] compressed = deflate(deflater, raw.toByteArray());
+                blocks.add(new Block(channel.position(), compressed.length, raw.size(), chunk.size()));
+                ByteBuffer buffer = ByteBuffer.wrap(compressed);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            channel.force(true);
+        } finally {
+            deflater.end();
+        }
+        SegmentIndex index = new SegmentIndex(segmentFile, minId, maxId, minTime, maxTime,
+                quizIds.stream().mapToLong(Long::longValue).toArray(),
+                studentIds.stream().mapToLong(Long::longValue).toArray(), true, blocks);
+        Path pending = dir.resolve(segmentFile.getFileName().toString().replace(".seg", ".idx.pending"));
+        writeIndex(index, pending);
+        return pending;
+    }
+
+    /** Makes a pending segment visible to readers once its rows are gone from the database. */
+    public synchronized void commit(Path pendingIndex) throws IOException {
+        Path committed = pendingIndex.resolveSibling(pendingIndex.getFileName().toString().replace(".pending", ""));
+        Files.move(pendingIndex, committed, StandardCopyOption.ATOMIC_MOVE);
+        segments.add(readIndex(committed));
+    }
+
+    /** Segments written by a run that stopped before its database delete was confirmed. */
+    public List<Path> pendingSegments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.toString().endsWith(".idx.pending")).sorted().toList();
+        }
+    }
+
+    public List<Long> idsIn(Path pendingIndex) throws IOException {
+        SegmentIndex index = readIndex(pendingIndex);
+        List<Long> ids = new ArrayList<>();
+        for (ArchivedAttempt attempt : decode(index)) {
+            ids.add(attempt.id());
+        }
+        return ids;
+    }
+
+    /** Whether any committed segment holds attempts of the quiz; answered from the in-memory indexes. */
+    public boolean containsQuiz(long quizId) {
+        for (SegmentIndex segment : segments) {
+            if (Arrays.binarySearch(segment.quizIds(), quizId) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<ArchivedAttempt> findByQuizId(long quizId) {
+        List<ArchivedAttempt> result = new ArrayList<>();
+        for (SegmentIndex segment : segments) {
+            if (Arrays.binarySearch(segment.quizIds(), quizId) >= 0) {
+                result.addAll(read(segment, a -> a.quizId() == quizId));
+            }
+        }
+        return result;
+    }
+
+    public List<ArchivedAttempt> findByStudentId(long studentId) {
+        List<ArchivedAttempt> result = new ArrayList<>();
+        for (SegmentIndex segment : segments) {
+            // Segments indexed before student ids were recorded have to be read.
+            if (segment.studentIds() == null || Arrays.binarySearch(segment.studentIds(), studentId) >= 0) {
+                result.addAll(read(segment, a -> a.studentId() != null && a.studentId() == studentId));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Hands every archived attempt completed within {@code [from, to]} to {@code action}, one
+     * segment at a time, skipping segments whose time range lies outside. Segments decoded for this
+     * are not cached, so a long report does not evict the segments serving live reads.
+     */
+    public void forEachCompletedBetween(long from, long to, Consumer<ArchivedAttempt> action) {
+        for (SegmentIndex segment : segments) {
+            if (segment.maxCompletedAt() < from || segment.minCompletedAt() > to) {
+                continue;
+            }
+            List<ArchivedAttempt> attempts = decoded.getIfPresent(segment.file());
+            for (ArchivedAttempt attempt : attempts != null ? attempts : decode(segment)) {
+                if (attempt.completedAt() >= from && attempt.completedAt() <= to) {
+                    action.accept(attempt);
+                }
+            }
+        }
+    }
+
+    public List<ArchivedAttempt> findAll(Predicate<ArchivedAttempt> filter) {
+        List<ArchivedAttempt> result = new ArrayList<>();
+        for (SegmentIndex segment : segments) {
+            result.addAll(read(segment, filter));
+        }
+        return result;
+    }
+
+    private List<ArchivedAttempt> read(SegmentIndex segment, Predicate<ArchivedAttempt> filter) {
+        List<ArchivedAttempt> result = new ArrayList<>();
+        for (ArchivedAttempt attempt : decoded.get(segment.file(), file -> decode(segment))) {
+            if (filter.test(attempt)) {
+                result.add(attempt);
+            }
+        }
+        return result;
+    }
+
+    private static List<ArchivedAttempt> decode(SegmentIndex segment) {
+        List<ArchivedAttempt> result = new ArrayList<>();
+        Inflater inflater = new Inflater();
+        try (FileChannel channel = FileChannel.open(segment.file(), StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            for (Block block : segment.blocks()) {
+                inflater.reset();
+                inflater.setInput(mapped.slice((int) block.offset(), block.compressedLength()));
+                byte[] raw = new byte[block.rawLength()];
+                int inflated = 0;
+                while (inflated < raw.length && !inflater.finished()) {
+                    inflated += inflater.inflate(raw, inflated, raw.length - inflated);
+                }
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw, 0, inflated));
+                for (int i = 0; i < block.records(); i++) {
+                    result.add(ArchivedAttempt.readFrom(in, segment.withPoints()));
+                }
+            }
+        } catch (IOException | DataFormatException ex) {
+            throw new IllegalStateException("Could not read archive segment " + segment.file(), ex);
+        } finally {
+            inflater.end();
+        }
+        return List.copyOf(result);
+    }
+
+    private Path segmentFileOf(Path indexFile) {
+        return dir.resolve(indexFile.getFileName().toString().replace(".idx", ".seg"));
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 3 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return out.toByteArray();
+    }
+
+    private long nextSequence() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(f -> f.getFileName().toString())
+                    .filter(name -> name.startsWith("segment-") && name.endsWith(".seg"))
+                    .mapToLong(name -> Long.parseLong(name.substring("segment-".length(), name.indexOf('.'))))
+                    .max().orElse(0L) + 1;
+        }
+    }
+
+    private static void writeIndex(SegmentIndex index, Path file) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeUTF(index.file().getFileName().toString());
+            out.writeLong(index.minId());
+            out.writeLong(index.maxId());
+            out.writeLong(index.minCompletedAt());
+            out.writeLong(index.maxCompletedAt());
+            out.writeInt(index.quizIds().length);
+            for (long quizId : index.quizIds()) {
+                out.writeLong(quizId);
+            }
+            out.writeInt(index.studentIds().length);
+            for (long studentId : index.studentIds()) {
+                out.writeLong(studentId);
+            }
+            out.writeInt(index.blocks().size());
+            for (Block block : index.blocks()) {
+                out.writeLong(block.offset());
+                out.writeInt(block.compressedLength());
+                out.writeInt(block.rawLength());
+                out.writeInt(block.records());
+            }
+            out.flush();
+            stream.getFD().sync();
+        }
+    }
+
+    private SegmentIndex readIndex(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int magic = in.readInt();
+            if (magic != INDEX_MAGIC && magic != INDEX_MAGIC_V2 && magic != INDEX_MAGIC_V1) {
+                throw new IOException("Not an archive index: " + file);
+            }
+            Path segmentFile = dir.resolve(in.readUTF());
+            long minId = in.readLong();
+            long maxId = in.readLong();
+            long minTime = in.readLong();
+            long maxTime = in.readLong();
+            long[] quizIds = new long[in.readInt()];
+            for (int i = 0; i < quizIds.length; i++) {
+                quizIds[i] = in.readLong();
+            }
+            long[] studentIds = null;
+            if (magic != INDEX_MAGIC_V1) {
+                studentIds = new long[in.readInt()];
+                for (int i = 0; i < studentIds.length; i++) {
+                    studentIds[i] = in.readLong();
+                }
+            }
+            int blockCount = in.readInt();
+            List<Block> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                blocks.add(new Block(in.readLong(), in.readInt(), in.readInt(), in.readInt()));
+            }
+            return new SegmentIndex(segmentFile, minId, maxId, minTime, maxTime, quizIds, studentIds,
+                    magic == INDEX_MAGIC, blocks);
+        }
+    }
+
+    record Block(long offset, int compressedLength, int rawLength, int records) {
+    }
+
+    /**
+     * {@code studentIds} is null for segments indexed before student ids were recorded, and
+     * {@code withPoints} is false for segments whose records predate exact points.
+     */
+    record SegmentIndex(Path file, long minId, long maxId, long minCompletedAt, long maxCompletedAt,
+                        long[] quizIds, long[] studentIds, boolean withPoints, List<Block> blocks) {
+    }
+}
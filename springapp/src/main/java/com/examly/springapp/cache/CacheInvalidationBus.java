@@ -0,0 +1,17 @@
+package com.examly.springapp.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts content changes to every instance's caches. Events are delivered only after the
+ * publishing transaction commits, to local subscribers immediately and to other nodes within
+ * the implementation's propagation delay. Delivery may repeat, so listeners must be idempotent.
+ */
+public interface CacheInvalidationBus {
+
+    String nodeId();
+
+    void publish(String entity, Long id, Long version);
+
+    void subscribe(Consumer<InvalidationEvent> listener);
+}
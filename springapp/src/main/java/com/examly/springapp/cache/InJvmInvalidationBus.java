@@ -0,0 +1,37 @@
+package com.examly.springapp.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Single-process bus: delivers events to local subscribers after commit. Used for tests and
+ * single-instance deployments.
+ */
+@Component
+@ConditionalOnProperty(name = "quiz.cache.bus", havingValue = "local", matchIfMissing = true)
+public class InJvmInvalidationBus implements CacheInvalidationBus {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<InvalidationEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(String entity, Long id, Long version) {
+        InvalidationEvent event = new InvalidationEvent(entity, id, version, nodeId);
+        AfterCommit.run(() -> listeners.forEach(listener -> listener.accept(event)));
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationEvent> listener) {
+        listeners.add(listener);
+    }
+}
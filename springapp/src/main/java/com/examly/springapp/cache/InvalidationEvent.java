@@ -0,0 +1,12 @@
+package com.examly.springapp.cache;
+
+/**
+ * A committed change to cached quiz content. {@code version} is the writer's version of the
+ * entity (null when unknown or deleted); {@code origin} is the id of the node that made the change.
+ */
+public record InvalidationEvent(String entity, Long id, Long version, String origin) {
+
+    public static final String QUIZ = "quiz";
+    public static final String QUIZ_QUESTIONS = "quiz-questions";
+    public static final String QUESTION_OPTIONS = "question-options";
+}
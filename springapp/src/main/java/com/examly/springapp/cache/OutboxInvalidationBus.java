@@ -0,0 +1,128 @@
+package com.examly.springapp.cache;
+
+import com.examly.springapp.model.CacheInvalidation;
+import com.examly.springapp.repository.CacheInvalidationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Database-backed bus. Each event is inserted into {@code cache_invalidation_outbox} inside the
+ * writer's transaction, so it exists if and only if the change committed. Every node polls the
+ * table and applies events from other nodes, so caches converge within one poll interval.
+ *
+ * <p>Identity values can become visible out of order when transactions commit concurrently. Ids
+ * skipped over while reading forward are remembered as gaps and looked up again on later polls
+ * until they appear or the settle window has passed (a rolled-back insert never appears), so each
+ * event is applied once.
+ */
+@Component
+@ConditionalOnProperty(name = "quiz.cache.bus", havingValue = "outbox")
+public class OutboxInvalidationBus implements CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxInvalidationBus.class);
+    private static final int POLL_LIMIT = 500;
+    private static final int MAX_GAPS = 1000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<InvalidationEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final CacheInvalidationRepository repository;
+    private final Duration settleWindow;
+    private final Duration retention;
+    private volatile long lastSeenId;
+    // Ids below lastSeenId not seen yet, with the time they were first skipped; in id order.
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+
+    public OutboxInvalidationBus(CacheInvalidationRepository repository,
+                                 @Value("${quiz.cache.bus.settle-window:PT10S}") Duration settleWindow,
+                                 @Value("${quiz.cache.bus.retention:PT1H}") Duration retention) {
+        this.repository = repository;
+        this.settleWindow = settleWindow;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    void start() {
+        lastSeenId = repository.findMaxId();
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(String entity, Long id, Long version) {
+        repository.save(CacheInvalidation.builder()
+                .entity(entity)
+                .entityId(id)
+                .version(version)
+                .origin(nodeId)
+                .createdAt(new Date())
+                .build());
+        InvalidationEvent event = new InvalidationEvent(entity, id, version, nodeId);
+        AfterCommit.run(() -> deliver(event));
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationEvent> listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.cache.bus.poll-interval:1000}")
+    public synchronized void poll() {
+        long now = System.currentTimeMillis();
+        gaps.values().removeIf(skippedAt -> skippedAt < now - settleWindow.toMillis());
+        if (!gaps.isEmpty()) {
+            for (CacheInvalidation row : repository.findAllById(gaps.keySet())) {
+                gaps.remove(row.getId());
+                apply(row);
+            }
+        }
+        for (CacheInvalidation row : repository.findAfter(lastSeenId, PageRequest.ofSize(POLL_LIMIT))) {
+            for (long id = lastSeenId + 1; id < row.getId() && gaps.size() < MAX_GAPS; id++) {
+                gaps.put(id, now);
+            }
+            apply(row);
+            lastSeenId = row.getId();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.cache.bus.cleanup-interval:600000}")
+    public void purge() {
+        int purged = repository.deleteOlderThan(new Date(System.currentTimeMillis() - retention.toMillis()));
+        if (purged > 0) {
+            log.debug("Purged {} cache invalidation events", purged);
+        }
+    }
+
+    private void apply(CacheInvalidation row) {
+        if (!nodeId.equals(row.getOrigin())) {
+            deliver(new InvalidationEvent(row.getEntity(), row.getEntityId(), row.getVersion(), row.getOrigin()));
+        }
+    }
+
+    private void deliver(InvalidationEvent event) {
+        for (Consumer<InvalidationEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException ex) {
+                log.warn("Cache invalidation listener failed for {}", event, ex);
+            }
+        }
+    }
+}
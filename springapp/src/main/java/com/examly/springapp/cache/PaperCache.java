@@ -0,0 +1,52 @@
+package com.examly.springapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Per-student papers, keyed by quiz and student. For bank quizzes a paper holds the student's
+ * drawn questions, which otherwise cost a query on every paper request and every submission.
+ * Filled on demand for registered students and ahead of scheduled exams for the roster; dropped
+ * by {@link QuizContentCache} together with the quiz's snapshot.
+ */
+@Component
+public class PaperCache {
+
+    private final Cache<PaperKey, ShuffledPaper> papers;
+    private final long maxPapers;
+
+    public PaperCache(@Value("${quiz.papers.max-papers:100000}") long maxPapers,
+                      @Value("${quiz.papers.expire-after-access:PT6H}") Duration expireAfterAccess) {
+        this.maxPapers = maxPapers;
+        this.papers = Caffeine.newBuilder()
+                .maximumSize(maxPapers)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    public ShuffledPaper get(Long quizId, String studentKey, Supplier<ShuffledPaper> builder) {
+        return papers.get(new PaperKey(quizId, studentKey), key -> builder.get());
+    }
+
+    public ShuffledPaper getIfPresent(Long quizId, String studentKey) {
+        return papers.getIfPresent(new PaperKey(quizId, studentKey));
+    }
+
+    public long maxPapers() {
+        return maxPapers;
+    }
+
+    /** Drops the quiz's papers unless they already reflect {@code version} (null drops them all). */
+    public void invalidate(Long quizId, Long version) {
+        papers.asMap().entrySet().removeIf(entry -> entry.getKey().quizId() == quizId
+                && (version == null || entry.getValue().getSnapshot().getVersion() < version));
+    }
+
+    private record PaperKey(long quizId, String studentKey) {
+    }
+}
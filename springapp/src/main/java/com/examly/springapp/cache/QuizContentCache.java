@@ -0,0 +1,81 @@
+package com.examly.springapp.cache;
+
+import com.examly.springapp.model.Quiz;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single entry point for quiz content changes. Write paths report what changed; the change is
+ * broadcast on the {@link CacheInvalidationBus} and every node, this one included, evicts the
+ * affected entries once the change has committed.
+ *
+ * <p>Locally, entity regions are kept current by Hibernate's READ_WRITE strategy, but inverse
+ * collections (a quiz's questions, a question's options) are not touched when a child row is
+ * inserted through its own repository, and other nodes see nothing at all. Evictions therefore
+ * cover the second-level entity, collection and query regions as well as the in-process
+ * {@link QuizSnapshotCache} and {@link PaperCache}.
+ */
+@Component
+public class QuizContentCache {
+
+    static final String QUIZ_QUESTIONS_ROLE = "com.examly.springapp.model.Quiz.questions";
+    static final String QUESTION_OPTIONS_ROLE = "com.examly.springapp.model.Question.options";
+    static final String QUESTION_QUERY_REGION = "quiz-question-queries";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final QuizSnapshotCache quizSnapshotCache;
+    private final PaperCache paperCache;
+    private final CacheInvalidationBus bus;
+
+    public QuizContentCache(EntityManagerFactory entityManagerFactory, QuizSnapshotCache quizSnapshotCache,
+                            PaperCache paperCache, CacheInvalidationBus bus) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.quizSnapshotCache = quizSnapshotCache;
+        this.paperCache = paperCache;
+        this.bus = bus;
+        bus.subscribe(this::apply);
+    }
+
+    public void quizChanged(Long quizId, Long version) {
+        bus.publish(InvalidationEvent.QUIZ, quizId, version);
+    }
+
+    public void questionsChanged(Long quizId) {
+        bus.publish(InvalidationEvent.QUIZ_QUESTIONS, quizId, null);
+    }
+
+    public void optionsChanged(Long questionId) {
+        bus.publish(InvalidationEvent.QUESTION_OPTIONS, questionId, null);
+    }
+
+    private void apply(InvalidationEvent event) {
+        boolean remote = !bus.nodeId().equals(event.origin());
+        switch (event.entity()) {
+            case InvalidationEvent.QUIZ -> {
+                if (remote) {
+                    secondLevelCache().evictEntityData(Quiz.class, event.id());
+                    secondLevelCache().evictCollectionData(QUIZ_QUESTIONS_ROLE, event.id());
+                }
+                quizSnapshotCache.invalidate(event.id(), event.version());
+                paperCache.invalidate(event.id(), event.version());
+            }
+            case InvalidationEvent.QUIZ_QUESTIONS -> {
+                secondLevelCache().evictCollectionData(QUIZ_QUESTIONS_ROLE, event.id());
+                if (remote) {
+                    secondLevelCache().evictQueryRegion(QUESTION_QUERY_REGION);
+                }
+                quizSnapshotCache.invalidate(event.id(), null);
+                paperCache.invalidate(event.id(), null);
+            }
+            case InvalidationEvent.QUESTION_OPTIONS ->
+                    secondLevelCache().evictCollectionData(QUESTION_OPTIONS_ROLE, event.id());
+            default -> {
+            }
+        }
+    }
+
+    private Cache secondLevelCache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+}
@@ -0,0 +1,130 @@
+package com.examly.springapp.cache;
+
+import com.examly.springapp.scoring.AnswerKey;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, fully loaded view of a quiz's questions and options, in canonical order
+ * (questions and options ordered by id). Papers, scoring and serialization all read from
+ * this view so they never touch the persistence context.
+ */
+public final class QuizSnapshot {
+
+    private final long quizId;
+    private final long version;
+    private final String title;
+    private final String bankTag;
+    private final int drawCount;
+    private final boolean attemptable;
+    private final QuestionEntry[] questions;
+    private final long[] questionIds;
+    private volatile AnswerKey answerKey;
+
+    public QuizSnapshot(long quizId, long version, String title, List<QuestionEntry> questions) {
+        this(quizId, version, title, null, 0, true, questions);
+    }
+
+    public QuizSnapshot(long quizId, long version, String title, String bankTag, int drawCount,
+                        boolean attemptable, List<QuestionEntry> questions) {
+        this.quizId = quizId;
+        this.version = version;
+        this.title = title;
+        this.bankTag = bankTag;
+        this.drawCount = drawCount;
+        this.attemptable = attemptable;
+        this.questions = questions.stream()
+                .sorted((a, b) -> Long.compare(a.id(), b.id()))
+                .toArray(QuestionEntry[]::new);
+        this.questionIds = Arrays.stream(this.questions).mapToLong(QuestionEntry::id).toArray();
+    }
+
+    public long getQuizId() {
+        return quizId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getBankTag() {
+        return bankTag;
+    }
+
+    public int getDrawCount() {
+        return drawCount;
+    }
+
+    /** Whether students may be served papers and submit attempts; see {@code Quiz.isAttemptable()}. */
+    public boolean isAttemptable() {
+        return attemptable;
+    }
+
+    /** Whether each student's questions are drawn from a tagged bank rather than fixed. */
+    public boolean isDrawn() {
+        return bankTag != null && drawCount > 0;
+    }
+
+    /** The same quiz with a student's drawn questions in place of its own. */
+    public QuizSnapshot withQuestions(List<QuestionEntry> drawnQuestions) {
+        return new QuizSnapshot(quizId, version, title, null, 0, attemptable, drawnQuestions);
+    }
+
+    /** The compiled answer key, built on first use; concurrent first calls may each build one. */
+    public AnswerKey answerKey() {
+        AnswerKey key = answerKey;
+        if (key == null) {
+            key = AnswerKey.compile(this);
+            answerKey = key;
+        }
+        return key;
+    }
+
+    public int questionCount() {
+        return questions.length;
+    }
+
+    public QuestionEntry question(int index) {
+        return questions[index];
+    }
+
+    /** Canonical position of a question, or a negative value if it is not part of this quiz. */
+    public int indexOf(long questionId) {
+        return Arrays.binarySearch(questionIds, questionId);
+    }
+
+    public record QuestionEntry(long id, String text, String type, OptionEntry[] options) {
+
+        public QuestionEntry {
+            options = Arrays.stream(options)
+                    .sorted((a, b) -> Long.compare(a.id(), b.id()))
+                    .toArray(OptionEntry[]::new);
+        }
+
+        public int optionCount() {
+            return options.length;
+        }
+
+        public OptionEntry option(int index) {
+            return options[index];
+        }
+
+        /** Canonical position of an option within this question, or -1. */
+        public int optionIndex(long optionId) {
+            for (int i = 0; i < options.length; i++) {
+                if (options[i].id() == optionId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    public record OptionEntry(long id, String text, boolean correct) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.examly.springapp.cache;
+
+import com.examly.springapp.exception.ResourceNotFoundException;
+import com.examly.springapp.model.Question;
+import com.examly.springapp.model.Quiz;
+import com.examly.springapp.repository.QuestionRepository;
+import com.examly.springapp.repository.QuizRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bounded in-process cache of {@link QuizSnapshot}s keyed by quiz id. A snapshot is built with
+ * one query for the quiz and one fetch-join query for its questions and options, and is dropped
+ * by {@link QuizContentCache} whenever the quiz or its content changes.
+ */
+@Component
+public class QuizSnapshotCache {
+
+    private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
+    private final Cache<Long, QuizSnapshot> snapshots;
+
+    public QuizSnapshotCache(QuizRepository quizRepository, QuestionRepository questionRepository,
+                             @Value("${quiz.snapshot-cache.max-quizzes:1000}") long maxQuizzes) {
+        this.quizRepository = quizRepository;
+        this.questionRepository = questionRepository;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxQuizzes)
+                .build();
+    }
+
+    public QuizSnapshot get(Long quizId) {
+        return snapshots.get(quizId, this::load);
+    }
+
+    /** Drops the snapshot unless it already reflects {@code version} (null drops it unconditionally). */
+    public void invalidate(Long quizId, Long version) {
+        snapshots.asMap().computeIfPresent(quizId,
+                (id, snapshot) -> version != null && snapshot.getVersion() >= version ? snapshot : null);
+    }
+
+    private QuizSnapshot load(Long quizId) {
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+        List<QuizSnapshot.QuestionEntry> questions = questionRepository.findWithOptionsByQuizId(quizId).stream()
+                .map(QuizSnapshotCache::toEntry)
+                .toList();
+        long version = quiz.getVersion() != null ? quiz.getVersion() : 0L;
+        int drawCount = quiz.getDrawCount() != null ? quiz.getDrawCount() : 0;
+        return new QuizSnapshot(quiz.getId(), version, quiz.getTitle(), quiz.getBankTag(), drawCount,
+                quiz.isAttemptable(), questions);
+    }
+
+    public static QuizSnapshot.QuestionEntry toEntry(Question question) {
+        QuizSnapshot.OptionEntry[] options = question.getOptions().stream()
+                .map(option -> new QuizSnapshot.OptionEntry(option.getId(), option.getOptionText(),
+                        Boolean.TRUE.equals(option.getIsCorrect())))
+                .toArray(QuizSnapshot.OptionEntry[]::new);
+        return new QuizSnapshot.QuestionEntry(question.getId(), question.getQuestionText(),
+                question.getQuestionType(), options);
+    }
+}
@@ -0,0 +1,87 @@
+package com.examly.springapp.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.SplittableRandom;
+
+/**
+ * A per-student ordering of a {@link QuizSnapshot}, stored as index permutations only.
+ * The same seed always yields the same paper, so a paper can be re-derived at any time
+ * instead of being stored; positions map back to canonical snapshot indexes.
+ */
+public final class ShuffledPaper {
+
+    private final QuizSnapshot snapshot;
+    private final int[] questionOrder;
+    private final int[][] optionOrder;
+
+    private ShuffledPaper(QuizSnapshot snapshot, int[] questionOrder, int[][] optionOrder) {
+        this.snapshot = snapshot;
+        this.questionOrder = questionOrder;
+        this.optionOrder = optionOrder;
+    }
+
+    public static ShuffledPaper of(QuizSnapshot snapshot, String studentKey) {
+        SplittableRandom random = new SplittableRandom(seed(snapshot.getQuizId(), snapshot.getVersion(), studentKey));
+        int[] questionOrder = permutation(snapshot.questionCount(), random);
+        int[][] optionOrder = new int[questionOrder.length][];
+        for (int i = 0; i < questionOrder.length; i++) {
+            optionOrder[i] = permutation(snapshot.question(i).optionCount(), random);
+        }
+        return new ShuffledPaper(snapshot, questionOrder, optionOrder);
+    }
+
+    public QuizSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int size() {
+        return questionOrder.length;
+    }
+
+    /** Canonical question index shown at the given paper position. */
+    public int canonicalQuestion(int position) {
+        return questionOrder[position];
+    }
+
+    /** Canonical option index shown at the given option position of a canonical question. */
+    public int canonicalOption(int canonicalQuestion, int optionPosition) {
+        return optionOrder[canonicalQuestion][optionPosition];
+    }
+
+    static long seed(long quizId, long version, String studentKey) {
+        long h = quizId * 0x9E3779B97F4A7C15L;
+        h ^= version + 0x632BE59BD9B4E019L + (h << 6) + (h >>> 2);
+        h ^= studentHash(studentKey);
+        return h;
+    }
+
+    /**
+     * A 64-bit hash of the student key, the first eight bytes of its SHA-256. {@code hashCode()}
+     * has only 32 bits, so across a large cohort some students would share a paper.
+     */
+    public static long studentHash(String studentKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(studentKey.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static int[] permutation(int size, SplittableRandom random) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+}
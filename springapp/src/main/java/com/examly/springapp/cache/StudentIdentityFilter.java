@@ -0,0 +1,91 @@
+package com.examly.springapp.cache;
+
+import com.examly.springapp.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bloom filters over registered usernames and emails, loaded from the students table once the
+ * context has started and fed by every local insert. A negative answer means the value is
+ * definitely not taken as far as this node knows, so registration can skip the existence query.
+ * Students inserted by other instances are missed until the next periodic rebuild, which is why
+ * the unique constraints on the table stay the final check. Until the first load completes,
+ * every value is reported as possibly taken.
+ */
+@Component
+public class StudentIdentityFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentIdentityFilter.class);
+
+    private final StudentRepository studentRepository;
+    private final double falsePositiveProbability;
+    private final int minimumCapacity;
+    private volatile Filters filters;
+    private volatile Filters building;
+
+    public StudentIdentityFilter(StudentRepository studentRepository,
+                                 @Value("${quiz.students.filter.false-positive-probability:0.01}") double falsePositiveProbability,
+                                 @Value("${quiz.students.filter.minimum-capacity:10000}") int minimumCapacity) {
+        this.studentRepository = studentRepository;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.minimumCapacity = minimumCapacity;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    @Scheduled(fixedDelayString = "${quiz.students.filter.rebuild-interval:3600000}",
+            initialDelayString = "${quiz.students.filter.rebuild-interval:3600000}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        // Twice the current population leaves room to grow until the next rebuild.
+        long capacity = Math.max(minimumCapacity, 2L * studentRepository.count());
+        Filters rebuilt = new Filters(BloomFilter.create(capacity, falsePositiveProbability),
+                BloomFilter.create(capacity, falsePositiveProbability));
+        // Published before the load queries, so inserts racing with the load land in both filters.
+        building = rebuilt;
+        List<String> usernames = studentRepository.findAllUsernames();
+        List<String> emails = studentRepository.findAllEmails();
+        usernames.forEach(rebuilt.usernames::add);
+        emails.forEach(rebuilt.emails::add);
+        Filters previous = filters;
+        filters = rebuilt;
+        building = null;
+        if (previous == null) {
+            log.info("Loaded {} usernames and {} emails into identity filters in {} ms",
+                    usernames.size(), emails.size(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    public boolean mightHaveUsername(String username) {
+        Filters current = filters;
+        return current == null || current.usernames.mightContain(username);
+    }
+
+    public boolean mightHaveEmail(String email) {
+        Filters current = filters;
+        return current == null || current.emails.mightContain(email);
+    }
+
+    /** Records a committed insert. */
+    public void added(String username, String email) {
+        Filters next = building;
+        Filters current = filters;
+        for (Filters target : new Filters[] {next, current}) {
+            if (target != null) {
+                target.usernames.add(username);
+                if (email != null) {
+                    target.emails.add(email);
+                }
+            }
+        }
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.examly.springapp.config;
+
+import com.examly.springapp.cache.QuizContentCache;
+import com.examly.springapp.repository.QuizAttemptRepository;
+import com.examly.springapp.repository.QuizRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-off data fixes that schema auto-update cannot express. Each step is idempotent and only
+ * touches rows that still need it, so it is safe to run on every start.
+ */
+@Component
+@Order(0)
+public class DataMigrationRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataMigrationRunner.class);
+
+    private final QuizRepository quizRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizContentCache quizContentCache;
+    private final boolean linkAttemptStudents;
+
+    public DataMigrationRunner(QuizRepository quizRepository, QuizAttemptRepository quizAttemptRepository,
+                               QuizContentCache quizContentCache,
+                               @Value("${quiz.migrations.link-attempt-students:true}") boolean linkAttemptStudents) {
+        this.quizRepository = quizRepository;
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.quizContentCache = quizContentCache;
+        this.linkAttemptStudents = linkAttemptStudents;
+    }
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        // Quizzes created before the optimistic-lock column existed; a null version cannot be compared.
+        int versioned = quizRepository.initializeMissingVersions();
+        if (versioned > 0) {
+            log.info("Initialized version on {} existing quizzes", versioned);
+        }
+        // Quizzes created before versioning become published versions, frozen once attempted.
+        List<Long> unversioned = quizRepository.findIdsWithoutStatus();
+        if (!unversioned.isEmpty()) {
+            int published = quizRepository.publishQuizzesWithoutStatus();
+            // Other nodes may still hold snapshots built from the old rows.
+            unversioned.forEach(id -> quizContentCache.quizChanged(id, null));
+            log.info("Published {} quizzes created before versioning", published);
+        }
+        if (linkAttemptStudents) {
+            // Attempts recorded before quiz_attempts.student_id existed only carry the free-text name.
+            int linked = quizAttemptRepository.linkStudentsByName();
+            if (linked > 0) {
+                log.info("Linked {} existing quiz attempts to students by username", linked);
+            }
+        }
+    }
+}
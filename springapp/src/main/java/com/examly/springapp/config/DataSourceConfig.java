@@ -0,0 +1,65 @@
+package com.examly.springapp.config;
+
+import com.examly.springapp.datasource.WorkloadPool;
+import com.examly.springapp.datasource.WorkloadPoolProperties;
+import com.examly.springapp.datasource.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One Hikari pool per workload ("oltp", "reporting", "bulk"), so admin listings and bulk
+ * maintenance queue for their own connections instead of starving exam traffic. Pools report
+ * acquire time, pending threads and usage under the {@code hikaricp.*} meters, tagged by pool name.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public WorkloadRoutingDataSource workloadRoutingDataSource(WorkloadPoolProperties properties, MeterRegistry meterRegistry,
+                                 @Value("${spring.datasource.url}") String url,
+                                 @Value("${spring.datasource.username}") String username,
+                                 @Value("${spring.datasource.password}") String password,
+                                 @Value("${spring.datasource.driver-class-name}") String driverClassName) {
+        if (!properties.getPools().containsKey(WorkloadPool.OLTP)) {
+            throw new IllegalStateException("quiz.datasource.pools must define the '" + WorkloadPool.OLTP + "' pool");
+        }
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        Map<Object, Object> targets = new HashMap<>();
+        properties.getPools().forEach((name, pool) -> {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(url);
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setDriverClassName(driverClassName);
+            dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+            dataSource.setMinimumIdle(pool.getMinimumIdle());
+            dataSource.setConnectionTimeout(pool.getConnectionTimeout().toMillis());
+            dataSource.setIdleTimeout(pool.getIdleTimeout().toMillis());
+            dataSource.setMetricsTrackerFactory(metrics);
+            targets.put(name, dataSource);
+        });
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(targets.get(WorkloadPool.OLTP));
+        routing.setLenientFallback(false);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(WorkloadRoutingDataSource workloadRoutingDataSource) {
+        // Defer the physical connection until the first statement, once the pool has been chosen.
+        return new LazyConnectionDataSourceProxy(workloadRoutingDataSource);
+    }
+}
@@ -0,0 +1,141 @@
+package com.examly.springapp.config;
+
+import com.examly.springapp.cache.QuizSnapshot;
+import com.examly.springapp.cache.QuizSnapshotCache;
+import com.examly.springapp.dto.AnswerDTO;
+import com.examly.springapp.dto.QuestionDTO;
+import com.examly.springapp.repository.QuizAttemptRepository;
+import com.examly.springapp.scoring.ScoringEngine;
+import com.examly.springapp.service.QuestionService;
+import com.examly.springapp.service.QuizService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Warms the instance before it reports ready. Command-line runners finish before Spring Boot
+ * moves readiness to ACCEPTING_TRAFFIC, so the first students after a deploy find the quizzes
+ * they are most likely to take already in the second-level and snapshot caches, their queries
+ * planned, and the paper, serialization and scoring paths compiled.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmUpRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+    private static final String WARM_UP_STUDENT = "warm-up";
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizSnapshotCache quizSnapshotCache;
+    private final QuizService quizService;
+    private final QuestionService questionService;
+    private final ScoringEngine scoringEngine;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxQuizzes;
+    private final Duration lookback;
+    private final int scoringIterations;
+
+    public WarmUpRunner(QuizAttemptRepository quizAttemptRepository, QuizSnapshotCache quizSnapshotCache,
+                        QuizService quizService, QuestionService questionService, ScoringEngine scoringEngine,
+                        ObjectMapper objectMapper,
+                        @Value("${quiz.warmup.enabled:true}") boolean enabled,
+                        @Value("${quiz.warmup.max-quizzes:20}") int maxQuizzes,
+                        @Value("${quiz.warmup.lookback:P7D}") Duration lookback,
+                        @Value("${quiz.warmup.scoring-iterations:2000}") int scoringIterations) {
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.quizSnapshotCache = quizSnapshotCache;
+        this.quizService = quizService;
+        this.questionService = questionService;
+        this.scoringEngine = scoringEngine;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxQuizzes = maxQuizzes;
+        this.lookback = lookback;
+        this.scoringIterations = scoringIterations;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        // Warm-up only saves latency; an instance that cannot warm up still serves correctly.
+        try {
+            warmUp();
+        } catch (RuntimeException ex) {
+            log.warn("Warm-up failed; starting with cold caches", ex);
+        }
+    }
+
+    private void warmUp() {
+        long started = System.nanoTime();
+        quizService.getAllQuizzes();
+        List<Long> quizIds = quizAttemptRepository.findRecentlyActiveQuizIds(
+                Date.from(Instant.now().minus(lookback)), PageRequest.ofSize(maxQuizzes));
+        List<QuizSnapshot> snapshots = new ArrayList<>();
+        long payloadBytes = 0;
+        for (Long quizId : quizIds) {
+            try {
+                snapshots.add(quizSnapshotCache.get(quizId));
+                List<QuestionDTO> questions = questionService.getQuestionsByQuizId(quizId);
+                payloadBytes += objectMapper.writeValueAsBytes(questions).length;
+                objectMapper.writeValueAsBytes(questionService.getPaper(quizId, WARM_UP_STUDENT));
+            } catch (RuntimeException | JsonProcessingException ex) {
+                log.warn("Warm-up skipped quiz {}", quizId, ex);
+            }
+        }
+        long loaded = System.nanoTime();
+        long firstPass = 0;
+        long lastPass = 0;
+        List<List<AnswerDTO>> submissions = snapshots.stream().map(WarmUpRunner::syntheticAnswers).toList();
+        for (int i = 0; i < scoringIterations && !snapshots.isEmpty(); i++) {
+            long passStarted = System.nanoTime();
+            for (int s = 0; s < snapshots.size(); s++) {
+                scoringEngine.grade(snapshots.get(s), submissions.get(s));
+            }
+            long pass = System.nanoTime() - passStarted;
+            if (i == 0) {
+                firstPass = pass;
+            }
+            lastPass = pass;
+        }
+        long finished = System.nanoTime();
+        log.info("Warm-up finished in {} ms: {} quizzes cached ({} KB of questions) in {} ms,"
+                        + " {} scoring passes in {} ms (first pass {} us, last pass {} us)",
+                millis(finished - started), snapshots.size(), payloadBytes / 1024, millis(loaded - started),
+                snapshots.isEmpty() ? 0 : scoringIterations, millis(finished - loaded), firstPass / 1000, lastPass / 1000);
+    }
+
+    /** Picks the first option of every question, mixing right and wrong answers. */
+    private static List<AnswerDTO> syntheticAnswers(QuizSnapshot snapshot) {
+        List<AnswerDTO> answers = new ArrayList<>(snapshot.questionCount());
+        for (int q = 0; q < snapshot.questionCount(); q++) {
+            QuizSnapshot.QuestionEntry question = snapshot.question(q);
+            if (question.optionCount() > 0) {
+                AnswerDTO answer = new AnswerDTO();
+                answer.setQuestionId(question.id());
+                answer.setSelectedOptionId(question.option(0).id());
+                answers.add(answer);
+            }
+        }
+        return answers;
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
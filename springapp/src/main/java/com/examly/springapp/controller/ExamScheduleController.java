@@ -0,0 +1,36 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.dto.ExamScheduleDTO;
+import com.examly.springapp.service.ExamScheduleService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/exams")
+public class ExamScheduleController {
+
+    @Autowired
+    private ExamScheduleService examScheduleService;
+
+    @PostMapping
+    public ResponseEntity<ExamScheduleDTO> createSchedule(@Valid @RequestBody ExamScheduleDTO examScheduleDTO) {
+        ExamScheduleDTO created = examScheduleService.createSchedule(examScheduleDTO);
+        return new ResponseEntity<>(created, HttpStatus.CREATED);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ExamScheduleDTO>> getUpcomingSchedules() {
+        return ResponseEntity.ok(examScheduleService.getUpcomingSchedules());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSchedule(@PathVariable Long id) {
+        examScheduleService.deleteSchedule(id);
+        return ResponseEntity.noContent().build();
+    }
+}
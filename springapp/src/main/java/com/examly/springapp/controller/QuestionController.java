@@ -1,6 +1,9 @@
 package com.examly.springapp.controller;
+import com.examly.springapp.dto.AnswerKeyDTO;
+import com.examly.springapp.dto.JobStatusDTO;
 import com.examly.springapp.dto.QuestionDTO;
 import com.examly.springapp.service.QuestionService;
+import com.examly.springapp.service.RescoreService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,6 +16,8 @@ import java.util.List;
 public class QuestionController {
     @Autowired
     private QuestionService questionService;
+    @Autowired
+    private RescoreService rescoreService;
     @PostMapping
     public ResponseEntity<QuestionDTO> addQuestionToQuiz(@PathVariable Long quizId, @Valid @RequestBody QuestionDTO questionDTO) {
         QuestionDTO addedQuestion = questionService.addQuestion(quizId, questionDTO);
@@ -23,4 +28,15 @@ public class QuestionController {
         List<QuestionDTO> questions = questionService.getQuestionsByQuizId(quizId);
         return new ResponseEntity<>(questions, HttpStatus.OK);
     }
+    @GetMapping("/paper")
+    public ResponseEntity<List<QuestionDTO>> getPaper(@PathVariable Long quizId, @RequestParam String student) {
+        List<QuestionDTO> questions = questionService.getPaper(quizId, student);
+        return new ResponseEntity<>(questions, HttpStatus.OK);
+    }
+    @PutMapping("/{questionId}/answer-key")
+    public ResponseEntity<JobStatusDTO> correctAnswerKey(@PathVariable Long quizId, @PathVariable Long questionId,
+            @Valid @RequestBody AnswerKeyDTO answerKeyDTO) {
+        JobStatusDTO job = rescoreService.correctAnswerKey(quizId, questionId, answerKeyDTO.getCorrectOptionIds());
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.examly.springapp.controller;
 import com.examly.springapp.dto.QuizAttemptDTO;
+import com.examly.springapp.service.AttemptIdempotencyService;
 import com.examly.springapp.service.QuizAttemptService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,10 +13,19 @@ import java.util.List;
 public class QuizAttemptController {
     @Autowired
     private QuizAttemptService quizAttemptService;
+    @Autowired
+    private AttemptIdempotencyService attemptIdempotencyService;
     @PostMapping("/api/quiz-attempts")
-    public ResponseEntity<QuizAttemptDTO> submitQuizAttempt(@Valid @RequestBody QuizAttemptDTO quizAttemptDTO) {
-        QuizAttemptDTO result = quizAttemptService.submitQuizAttempt(quizAttemptDTO);
-        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    public ResponseEntity<QuizAttemptDTO> submitQuizAttempt(@Valid @RequestBody QuizAttemptDTO quizAttemptDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        QuizAttemptDTO result = attemptIdempotencyService.submit(quizAttemptDTO, idempotencyKey);
+        // No id yet: accepted into the local journal while the database is unavailable.
+        return new ResponseEntity<>(result, result.getId() != null ? HttpStatus.CREATED : HttpStatus.ACCEPTED);
+    }
+    @GetMapping("/api/students/{studentId}/attempts")
+    public ResponseEntity<List<QuizAttemptDTO>> getStudentHistory(@PathVariable Long studentId) {
+        List<QuizAttemptDTO> attempts = quizAttemptService.getStudentHistory(studentId);
+        return new ResponseEntity<>(attempts, HttpStatus.OK);
     }
     @GetMapping("/api/quizzes/{quizId}/attempts")
     public ResponseEntity<List<QuizAttemptDTO>> getQuizAttemptsByQuizId(@PathVariable Long quizId) {
@@ -1,6 +1,9 @@
 package com.examly.springapp.controller;
+import com.examly.springapp.dto.JobStatusDTO;
 import com.examly.springapp.dto.QuizDTO;
+import com.examly.springapp.dto.QuizPatchDTO;
 import com.examly.springapp.service.QuizService;
+import com.examly.springapp.service.RescoreService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,6 +16,8 @@ import java.util.List;
 public class QuizController {
     @Autowired
     private QuizService quizService;
+    @Autowired
+    private RescoreService rescoreService;
     @PostMapping
     public ResponseEntity<QuizDTO> createQuiz(@Valid @RequestBody QuizDTO quizDTO) {
         QuizDTO createdQuiz = quizService.createQuiz(quizDTO);
@@ -33,6 +38,31 @@ public class QuizController {
         QuizDTO updatedQuiz = quizService.updateQuiz(id, quizDTO);
         return new ResponseEntity<>(updatedQuiz, HttpStatus.OK);
     }
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchQuiz(@PathVariable Long id, @Valid @RequestBody QuizPatchDTO patch) {
+        long version = quizService.patchQuiz(id, patch);
+        return ResponseEntity.noContent().eTag(String.valueOf(version)).build();
+    }
+    @PostMapping("/{id}/drafts")
+    public ResponseEntity<QuizDTO> createDraft(@PathVariable Long id) {
+        QuizDTO draft = quizService.createDraft(id);
+        return new ResponseEntity<>(draft, HttpStatus.OK);
+    }
+    @PostMapping("/{id}/publish")
+    public ResponseEntity<QuizDTO> publishQuiz(@PathVariable Long id) {
+        QuizDTO published = quizService.publishQuiz(id);
+        return new ResponseEntity<>(published, HttpStatus.OK);
+    }
+    @GetMapping("/{id}/versions")
+    public ResponseEntity<List<QuizDTO>> getVersions(@PathVariable Long id) {
+        List<QuizDTO> versions = quizService.getVersions(id);
+        return new ResponseEntity<>(versions, HttpStatus.OK);
+    }
+    @PostMapping("/{id}/rescore")
+    public ResponseEntity<JobStatusDTO> rescoreQuiz(@PathVariable Long id) {
+        JobStatusDTO job = rescoreService.submitRescore(id);
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    }
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteQuiz(@PathVariable Long id) {
         quizService.deleteQuiz(id);
@@ -0,0 +1,57 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.dto.JobStatusDTO;
+import com.examly.springapp.service.AnswerSimilarityService;
+import com.examly.springapp.service.ReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Date;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private AnswerSimilarityService answerSimilarityService;
+
+    @PostMapping("/grades")
+    public ResponseEntity<JobStatusDTO> submitGradeReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
+        JobStatusDTO job = reportService.submitGradeReport(from, to);
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("/similarity")
+    public ResponseEntity<JobStatusDTO> submitSimilarityAnalysis(@RequestParam Long quizId,
+                                                                 @RequestParam(required = false) Double threshold) {
+        JobStatusDTO job = answerSimilarityService.submitAnalysis(quizId, threshold);
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<JobStatusDTO> getReportStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(reportService.getStatus(jobId));
+    }
+
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<Resource> downloadReport(@PathVariable String jobId) {
+        Resource report = reportService.getResult(jobId);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(report.getFilename()).build().toString())
+                .body(report);
+    }
+}
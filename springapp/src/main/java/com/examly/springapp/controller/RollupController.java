@@ -0,0 +1,28 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.dto.AttemptRollupDTO;
+import com.examly.springapp.service.AttemptRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Date;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rollups")
+public class RollupController {
+
+    @Autowired
+    private AttemptRollupService attemptRollupService;
+
+    @GetMapping("/attempts")
+    public ResponseEntity<List<AttemptRollupDTO>> getAttemptRollups(
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(required = false) Long quizId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
+        return ResponseEntity.ok(attemptRollupService.getRollups(granularity, quizId, from, to));
+    }
+}
@@ -0,0 +1,20 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.dto.SyncDTO;
+import com.examly.springapp.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @GetMapping
+    public ResponseEntity<SyncDTO> getChanges(@RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(syncService.getChanges(since));
+    }
+}
@@ -0,0 +1,51 @@
+package com.examly.springapp.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the pool chosen for the current thread. Set by {@link WorkloadPoolAspect} for annotated
+ * beans, or directly via {@link #call} for work that runs outside a proxied call, such as
+ * background jobs.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static String current() {
+        String pool = CURRENT.get();
+        return pool != null ? pool : WorkloadPool.OLTP;
+    }
+
+    public static <T> T call(String pool, Supplier<T> work) {
+        String previous = enter(pool);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void run(String pool, Runnable work) {
+        call(pool, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    static String enter(String pool) {
+        String previous = CURRENT.get();
+        CURRENT.set(pool);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.examly.springapp.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares which connection pool a service (or a single method) draws from. Unannotated code
+ * uses {@link #OLTP}. The choice only takes effect where the transaction starts; a method
+ * called inside an existing transaction keeps that transaction's connection.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WorkloadPool {
+
+    String OLTP = "oltp";
+    String REPORTING = "reporting";
+    String BULK = "bulk";
+
+    String value();
+}
@@ -1,10 +1,12 @@
 package com.examly.springapp.dto;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
+import java.util.List;
 public class AnswerDTO {
     @NotNull(message = "Question ID is required.")
     private Long questionId;
-    @NotNull(message = "Selected option ID is required.")
     private Long selectedOptionId;
+    private List<Long> selectedOptionIds;
     public Long getQuestionId() {
         return questionId;
     }
@@ -17,4 +19,14 @@ public class AnswerDTO {
     public void setSelectedOptionId(Long selectedOptionId) {
         this.selectedOptionId = selectedOptionId;
     }
+    public List<Long> getSelectedOptionIds() {
+        return selectedOptionIds;
+    }
+    public void setSelectedOptionIds(List<Long> selectedOptionIds) {
+        this.selectedOptionIds = selectedOptionIds;
+    }
+    @AssertTrue(message = "Selected option ID is required.")
+    private boolean isSelectionPresent() {
+        return selectedOptionId != null || selectedOptionIds != null;
+    }
 }
\ No newline at end of file
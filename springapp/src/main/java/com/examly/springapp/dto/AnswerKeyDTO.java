@@ -0,0 +1,14 @@
+package com.examly.springapp.dto;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+public class AnswerKeyDTO {
+    @NotEmpty(message = "At least one correct option is required.")
+    private List<@NotNull(message = "Option IDs cannot be null.") Long> correctOptionIds;
+    public List<Long> getCorrectOptionIds() {
+        return correctOptionIds;
+    }
+    public void setCorrectOptionIds(List<Long> correctOptionIds) {
+        this.correctOptionIds = correctOptionIds;
+    }
+}
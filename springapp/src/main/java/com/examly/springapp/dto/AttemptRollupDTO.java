@@ -0,0 +1,39 @@
+package com.examly.springapp.dto;
+import java.util.Date;
+public class AttemptRollupDTO {
+    private Long quizId;
+    private Date bucketStart;
+    private long attempts;
+    private double averageScore;
+    private double averagePercent;
+    public Long getQuizId() {
+        return quizId;
+    }
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+    public Date getBucketStart() {
+        return bucketStart;
+    }
+    public void setBucketStart(Date bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    public long getAttempts() {
+        return attempts;
+    }
+    public void setAttempts(long attempts) {
+        this.attempts = attempts;
+    }
+    public double getAverageScore() {
+        return averageScore;
+    }
+    public void setAverageScore(double averageScore) {
+        this.averageScore = averageScore;
+    }
+    public double getAveragePercent() {
+        return averagePercent;
+    }
+    public void setAveragePercent(double averagePercent) {
+        this.averagePercent = averagePercent;
+    }
+}
@@ -0,0 +1,69 @@
+package com.examly.springapp.dto;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.util.Date;
+import java.util.List;
+public class ExamScheduleDTO {
+    private Long id;
+    @NotNull(message = "Quiz ID is required.")
+    private Long quizId;
+    private String quizTitle;
+    @NotNull(message = "Opening time is required.")
+    private Date opensAt;
+    @NotNull(message = "Closing time is required.")
+    private Date closesAt;
+    @NotNull(message = "Expected roster size is required.")
+    @Min(value = 1, message = "Expected roster size must be at least 1.")
+    private Integer expectedRoster;
+    private List<@NotBlank(message = "Roster entries cannot be blank.") String> roster;
+    private boolean prepared;
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+    public Long getQuizId() {
+        return quizId;
+    }
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+    public String getQuizTitle() {
+        return quizTitle;
+    }
+    public void setQuizTitle(String quizTitle) {
+        this.quizTitle = quizTitle;
+    }
+    public Date getOpensAt() {
+        return opensAt;
+    }
+    public void setOpensAt(Date opensAt) {
+        this.opensAt = opensAt;
+    }
+    public Date getClosesAt() {
+        return closesAt;
+    }
+    public void setClosesAt(Date closesAt) {
+        this.closesAt = closesAt;
+    }
+    public Integer getExpectedRoster() {
+        return expectedRoster;
+    }
+    public void setExpectedRoster(Integer expectedRoster) {
+        this.expectedRoster = expectedRoster;
+    }
+    public List<String> getRoster() {
+        return roster;
+    }
+    public void setRoster(List<String> roster) {
+        this.roster = roster;
+    }
+    public boolean isPrepared() {
+        return prepared;
+    }
+    public void setPrepared(boolean prepared) {
+        this.prepared = prepared;
+    }
+}
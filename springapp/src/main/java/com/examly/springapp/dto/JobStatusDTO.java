@@ -0,0 +1,60 @@
+package com.examly.springapp.dto;
+import java.util.Date;
+public class JobStatusDTO {
+    private String id;
+    private String type;
+    private String state;
+    private Long processed;
+    private Long total;
+    private Date createdAt;
+    private Date finishedAt;
+    private String error;
+    public String getId() {
+        return id;
+    }
+    public void setId(String id) {
+        this.id = id;
+    }
+    public String getType() {
+        return type;
+    }
+    public void setType(String type) {
+        this.type = type;
+    }
+    public String getState() {
+        return state;
+    }
+    public void setState(String state) {
+        this.state = state;
+    }
+    public Long getProcessed() {
+        return processed;
+    }
+    public void setProcessed(Long processed) {
+        this.processed = processed;
+    }
+    public Long getTotal() {
+        return total;
+    }
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+    public void setFinishedAt(Date finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    public String getError() {
+        return error;
+    }
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Size;
 import java.util.List;
 public class QuestionDTO {
     private Long id;
+    private Long quizId;
     @NotBlank(message = "Question text must be between 5 and 500 characters.")
     @Size(min = 5, max = 500, message = "Question text must be between 5 and 500 characters.")
     private String questionText;
@@ -14,12 +15,19 @@ public class QuestionDTO {
     @Valid
     @NotNull(message = "Options cannot be null.")
     private List<OptionDTO> options;
+    private List<@NotBlank(message = "Tags cannot be blank.") @Size(max = 50, message = "Tags cannot exceed 50 characters.") String> tags;
     public Long getId() {
         return id;
     }
     public void setId(Long id) {
         this.id = id;
     }
+    public Long getQuizId() {
+        return quizId;
+    }
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
     public String getQuestionText() {
         return questionText;
     }
@@ -38,4 +46,10 @@ public class QuestionDTO {
     public void setOptions(List<OptionDTO> options) {
         this.options = options;
     }
+    public List<String> getTags() {
+        return tags;
+    }
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ public class QuizAttemptDTO {
     @Size(min = 3, max = 100, message = "Student name must be between 3 and 100 characters.")
     private String studentName;
     private Integer score;
+    private Double points;
     private Integer totalQuestions;
     private Date completedAt;
     private String quizTitle;
@@ -44,6 +45,12 @@ public class QuizAttemptDTO {
     public void setScore(Integer score) {
         this.score = score;
     }
+    public Double getPoints() {
+        return points;
+    }
+    public void setPoints(Double points) {
+        this.points = points;
+    }
     public Integer getTotalQuestions() {
         return totalQuestions;
     }
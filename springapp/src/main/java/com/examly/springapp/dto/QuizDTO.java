@@ -15,8 +15,17 @@ public class QuizDTO {
     @NotNull(message = "Time limit is required.")
     @Min(value = 3, message = "Time limit must be at least 3 minutes.")
     private Integer timeLimit;
+    @Size(max = 50, message = "Bank tag cannot exceed 50 characters.")
+    private String bankTag;
+    @Min(value = 1, message = "Draw count must be at least 1.")
+    private Integer drawCount;
     private Date createdAt;
     private Date updatedAt;
+    private Long version;
+    private String status;
+    private Long lineageId;
+    private Integer revision;
+    private Date publishedAt;
     public Long getId() {
         return id;
     }
@@ -41,6 +50,18 @@ public class QuizDTO {
     public void setTimeLimit(Integer timeLimit) {
         this.timeLimit = timeLimit;
     }
+    public String getBankTag() {
+        return bankTag;
+    }
+    public void setBankTag(String bankTag) {
+        this.bankTag = bankTag;
+    }
+    public Integer getDrawCount() {
+        return drawCount;
+    }
+    public void setDrawCount(Integer drawCount) {
+        this.drawCount = drawCount;
+    }
     public Date getCreatedAt() {
         return createdAt;
     }
@@ -53,4 +74,34 @@ public class QuizDTO {
     public void setUpdatedAt(Date updatedAt) {
         this.updatedAt = updatedAt;
     }
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    public String getStatus() {
+        return status;
+    }
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    public Long getLineageId() {
+        return lineageId;
+    }
+    public void setLineageId(Long lineageId) {
+        this.lineageId = lineageId;
+    }
+    public Integer getRevision() {
+        return revision;
+    }
+    public void setRevision(Integer revision) {
+        this.revision = revision;
+    }
+    public Date getPublishedAt() {
+        return publishedAt;
+    }
+    public void setPublishedAt(Date publishedAt) {
+        this.publishedAt = publishedAt;
+    }
 }
\ No newline at end of file
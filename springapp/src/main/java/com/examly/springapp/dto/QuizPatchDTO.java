@@ -0,0 +1,38 @@
+package com.examly.springapp.dto;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+public class QuizPatchDTO {
+    @Size(min = 3, max = 100, message = "Quiz title must be between 3 and 100 characters.")
+    private String title;
+    @Size(max = 255, message = "Description cannot exceed 255 characters.")
+    private String description;
+    @Min(value = 3, message = "Time limit must be at least 3 minutes.")
+    private Integer timeLimit;
+    @NotNull(message = "Version is required.")
+    private Long version;
+    public String getTitle() {
+        return title;
+    }
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    public String getDescription() {
+        return description;
+    }
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    public Integer getTimeLimit() {
+        return timeLimit;
+    }
+    public void setTimeLimit(Integer timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,46 @@
+package com.examly.springapp.dto;
+import java.util.List;
+public class SyncDTO {
+    private Long token;
+    private boolean full;
+    private boolean more;
+    private List<QuizDTO> quizzes;
+    private List<QuestionDTO> questions;
+    private List<Long> deletedQuizIds;
+    public Long getToken() {
+        return token;
+    }
+    public void setToken(Long token) {
+        this.token = token;
+    }
+    public boolean isFull() {
+        return full;
+    }
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+    public boolean isMore() {
+        return more;
+    }
+    public void setMore(boolean more) {
+        this.more = more;
+    }
+    public List<QuizDTO> getQuizzes() {
+        return quizzes;
+    }
+    public void setQuizzes(List<QuizDTO> quizzes) {
+        this.quizzes = quizzes;
+    }
+    public List<QuestionDTO> getQuestions() {
+        return questions;
+    }
+    public void setQuestions(List<QuestionDTO> questions) {
+        this.questions = questions;
+    }
+    public List<Long> getDeletedQuizIds() {
+        return deletedQuizIds;
+    }
+    public void setDeletedQuizIds(List<Long> deletedQuizIds) {
+        this.deletedQuizIds = deletedQuizIds;
+    }
+}
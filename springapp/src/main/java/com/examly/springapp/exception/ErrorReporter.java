@@ -0,0 +1,117 @@
+package com.examly.springapp.exception;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports unexpected errors without making the request thread pay for it. Each error is counted
+ * per exception type, reduced to a stack signature (type plus top frames) and sampled: the first
+ * occurrence of a signature is logged with its full trace, repeats only at 2, 4, 8, ... as a
+ * one-line summary with the running count. Sampled records go through a bounded queue to a single
+ * writer thread; when the queue is full the record is dropped and counted rather than blocking.
+ */
+@Component
+public class ErrorReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ErrorReporter.class);
+
+    private final BlockingQueue<ErrorRecord> queue;
+    private final Cache<String, AtomicLong> signatures;
+    private final Map<Class<?>, Counter> errorsByType = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Counter dropped;
+    private final int signatureFrames;
+    private final Thread writer;
+
+    public ErrorReporter(MeterRegistry meterRegistry,
+                         @Value("${quiz.errors.queue-capacity:1024}") int queueCapacity,
+                         @Value("${quiz.errors.max-signatures:2048}") long maxSignatures,
+                         @Value("${quiz.errors.signature-frames:5}") int signatureFrames) {
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.signatures = Caffeine.newBuilder().maximumSize(maxSignatures).build();
+        this.signatureFrames = signatureFrames;
+        this.dropped = Counter.builder("quiz.errors.dropped")
+                .description("Error reports dropped because the writer queue was full")
+                .register(meterRegistry);
+        Gauge.builder("quiz.errors.signatures", signatures, cache -> cache.estimatedSize())
+                .description("Distinct error stack signatures being tracked")
+                .register(meterRegistry);
+        this.writer = new Thread(this::drain, "error-reporter");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void report(Throwable ex, String method, String path) {
+        errorsByType.computeIfAbsent(ex.getClass(), type -> Counter.builder("quiz.errors")
+                .description("Unhandled errors by exception type")
+                .tag("exception", type.getSimpleName())
+                .register(meterRegistry)).increment();
+        String signature = signature(ex);
+        long count = signatures.get(signature, key -> new AtomicLong()).incrementAndGet();
+        if (Long.bitCount(count) != 1) {
+            return;
+        }
+        if (!queue.offer(new ErrorRecord(ex, signature, count, method, path))) {
+            dropped.increment();
+        }
+    }
+
+    private String signature(Throwable ex) {
+        StringBuilder signature = new StringBuilder(ex.getClass().getName());
+        StackTraceElement[] frames = ex.getStackTrace();
+        for (int i = 0; i < Math.min(signatureFrames, frames.length); i++) {
+            signature.append('|').append(frames[i].getClassName()).append('.')
+                    .append(frames[i].getMethodName()).append(':').append(frames[i].getLineNumber());
+        }
+        return signature.toString();
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                write(queue.take());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(ErrorRecord record) {
+        String id = Integer.toHexString(record.signature().hashCode());
+        if (record.count() == 1) {
+            log.error("Unhandled {} on {} {} [signature {}]", record.error().getClass().getName(),
+                    record.method(), record.path(), id, record.error());
+        } else {
+            log.error("Unhandled {} on {} {} [signature {}] seen {} times: {}", record.error().getClass().getName(),
+                    record.method(), record.path(), id, record.count(), record.error().getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.interrupt();
+        List<ErrorRecord> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        pending.forEach(this::write);
+    }
+
+    private record ErrorRecord(Throwable error, String signature, long count, String method, String path) {
+    }
+}
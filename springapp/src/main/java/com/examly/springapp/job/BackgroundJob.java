@@ -0,0 +1,90 @@
+package com.examly.springapp.job;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and outcome of one job run by {@link JobRegistry}. Fields are written by the worker
+ * thread and read by status requests, so every field is either final, atomic or volatile.
+ */
+public class BackgroundJob {
+
+    private final String id;
+    private final String type;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong processed = new AtomicLong();
+    private volatile long total = -1;
+    private volatile JobState state = JobState.QUEUED;
+    private volatile Instant finishedAt;
+    private volatile Path resultFile;
+    private volatile String error;
+
+    BackgroundJob(String id, String type) {
+        this.id = id;
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public JobState getState() {
+        return state;
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Path getResultFile() {
+        return resultFile;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public void addProcessed(long count) {
+        processed.addAndGet(count);
+    }
+
+    public void setResultFile(Path resultFile) {
+        this.resultFile = resultFile;
+    }
+
+    void start() {
+        state = JobState.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        state = JobState.COMPLETED;
+    }
+
+    void fail(Throwable cause) {
+        error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        finishedAt = Instant.now();
+        state = JobState.FAILED;
+    }
+}
@@ -0,0 +1,46 @@
+package com.examly.springapp.job;
+
+import com.examly.springapp.repository.JobLeaseRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Database leases that keep scheduled work to one node at a time. A lease is claimed for a fixed
+ * duration and expires on its own if the holder dies; long runs re-claim it to extend it.
+ */
+@Component
+public class JobLeases {
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final String owner = UUID.randomUUID().toString();
+
+    public JobLeases(JobLeaseRepository jobLeaseRepository) {
+        this.jobLeaseRepository = jobLeaseRepository;
+    }
+
+    /** Claims or extends the lease; false while another node holds it. */
+    public boolean tryAcquire(String name, Duration duration) {
+        Date now = new Date();
+        Date expiresAt = new Date(now.getTime() + duration.toMillis());
+        if (jobLeaseRepository.claim(name, owner, expiresAt, now) == 1) {
+            return true;
+        }
+        if (jobLeaseRepository.existsById(name)) {
+            return false;
+        }
+        try {
+            return jobLeaseRepository.create(name, owner, expiresAt) == 1;
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created it first.
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        jobLeaseRepository.release(name, owner, new Date());
+    }
+}
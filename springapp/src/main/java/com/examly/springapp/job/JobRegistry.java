@@ -0,0 +1,101 @@
+package com.examly.springapp.job;
+
+import com.examly.springapp.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs long admin work (reports, bulk maintenance) on a small dedicated pool, away from request
+ * threads, and keeps each job's progress for polling. Finished jobs and their result files are
+ * dropped once they are older than the retention period; a failed job's partial result file is
+ * deleted straight away.
+ */
+@Component
+public class JobRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(JobRegistry.class);
+
+    private final Map<String, BackgroundJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final Duration retention;
+
+    public JobRegistry(@Value("${quiz.jobs.threads:2}") int threads,
+                       @Value("${quiz.jobs.retention:PT24H}") Duration retention) {
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "quiz-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retention = retention;
+    }
+
+    public BackgroundJob submit(String type, Consumer<BackgroundJob> work) {
+        purgeExpired();
+        BackgroundJob job = new BackgroundJob(UUID.randomUUID().toString(), type);
+        jobs.put(job.getId(), job);
+        executor.execute(() -> {
+            job.start();
+            try {
+                work.accept(job);
+                job.complete();
+            } catch (Throwable ex) {
+                log.warn("Job {} ({}) failed", job.getId(), type, ex);
+                deleteResultFile(job);
+                job.fail(ex);
+                if (ex instanceof Error error) {
+                    throw error;
+                }
+            }
+        });
+        return job;
+    }
+
+    public BackgroundJob get(String id) {
+        BackgroundJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Job not found");
+        }
+        return job;
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (job.getFinishedAt() == null || job.getFinishedAt().isAfter(cutoff)) {
+                return false;
+            }
+            deleteResultFile(job);
+            return true;
+        });
+    }
+
+    private static void deleteResultFile(BackgroundJob job) {
+        if (job.getResultFile() != null) {
+            try {
+                Files.deleteIfExists(job.getResultFile());
+            } catch (IOException ex) {
+                log.warn("Could not delete result file {}", job.getResultFile(), ex);
+            }
+            job.setResultFile(null);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,8 @@
+package com.examly.springapp.job;
+
+public enum JobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
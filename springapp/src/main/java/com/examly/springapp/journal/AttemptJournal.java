@@ -0,0 +1,334 @@
+package com.examly.springapp.journal;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal on local disk for attempts that were scored while the database was
+ * unavailable. Each record is {@code [length][CRC32][payload]}; the first record that is short or
+ * fails its checksum, such as one torn by a crash mid-write, ends the log and is cut off on open.
+ *
+ * <p>Appends go through a single writer thread that writes everything queued so far and forces it
+ * to disk once, so concurrent submissions share one fsync; {@link #append} returns only after its
+ * record is durable. Replay reads from the checkpoint, a small file holding the offset up to which
+ * records are known to be in the database, and the log is emptied once replay has caught up.
+ */
+@Component
+public class AttemptJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptJournal.class);
+    private static final String JOURNAL = "attempts.journal";
+    private static final String CHECKPOINT = "attempts.checkpoint";
+    private static final String REJECTED = "attempts.rejected";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int maxBatch;
+    private final BlockingQueue<Append> queue;
+    // Unreplayed attempts by idempotency key, so retries are answered while the database is down.
+    private final ConcurrentMap<String, ScoredAttempt> pending = new ConcurrentHashMap<>();
+    private FileChannel channel;
+    private long end;
+    private long checkpoint;
+    private volatile boolean running;
+    private Thread writer;
+
+    public AttemptJournal(MeterRegistry meterRegistry,
+                          @Value("${quiz.journal.enabled:true}") boolean enabled,
+                          @Value("${quiz.journal.dir:data/journal}") String dir,
+                          @Value("${quiz.journal.queue-capacity:4096}") int queueCapacity,
+                          @Value("${quiz.journal.max-batch:256}") int maxBatch) {
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("quiz.journal.pending", pending, ConcurrentMap::size)
+                .description("Journaled attempts waiting to be stored in the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(dir);
+        channel = FileChannel.open(dir.resolve(JOURNAL),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        checkpoint = readCheckpoint();
+        long position = checkpoint;
+        for (Entry entry = read(position); entry != null; entry = read(position)) {
+            pending.put(entry.attempt().idempotencyKey(), entry.attempt());
+            position = entry.next();
+        }
+        end = position;
+        if (channel.size() > end) {
+            log.warn("Discarding {} bytes of incomplete records at the end of the attempt journal", channel.size() - end);
+            channel.truncate(end);
+            channel.force(true);
+        }
+        if (!pending.isEmpty()) {
+            log.warn("{} journaled attempts in {} are waiting to be stored", pending.size(), dir.toAbsolutePath());
+        }
+        running = true;
+        writer = new Thread(this::drain, "attempt-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    public Optional<ScoredAttempt> findPending(String idempotencyKey) {
+        return Optional.ofNullable(pending.get(idempotencyKey));
+    }
+
+    /** Queues the attempt for the next group commit and waits until it is on disk. */
+    public void append(ScoredAttempt attempt) {
+        if (!running) {
+            throw new IllegalStateException("Attempt journal is not open");
+        }
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        if (!queue.offer(new Append(attempt, encode(attempt), written))) {
+            throw new IllegalStateException("Attempt journal queue is full");
+        }
+        try {
+            written.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof IOException cause) {
+                throw new UncheckedIOException("Could not journal attempt", cause);
+            }
+            throw ex;
+        }
+    }
+
+    /** Up to {@code max} records after the checkpoint, in the order they were appended. */
+    public List<Entry> readPending(int max) throws IOException {
+        long position;
+        long limit;
+        synchronized (this) {
+            position = checkpoint;
+            limit = end;
+        }
+        List<Entry> entries = new ArrayList<>();
+        while (entries.size() < max && position < limit) {
+            Entry entry = read(position);
+            if (entry == null) {
+                throw new IOException("Attempt journal is corrupt at offset " + position);
+            }
+            entries.add(entry);
+            position = entry.next();
+        }
+        return entries;
+    }
+
+    /** Moves the checkpoint past records now stored in the database; empties the log once nothing is left. */
+    public synchronized void checkpoint(List<Entry> stored) throws IOException {
+        if (stored.isEmpty()) {
+            return;
+        }
+        long next = stored.get(stored.size() - 1).next();
+        if (next == end) {
+            // Checkpoint first: a crash before the truncate replays stored records, which is harmless.
+            writeCheckpoint(0);
+            channel.truncate(0);
+            channel.force(true);
+            end = 0;
+            next = 0;
+        } else {
+            writeCheckpoint(next);
+        }
+        checkpoint = next;
+        stored.forEach(entry -> pending.remove(entry.attempt().idempotencyKey()));
+    }
+
+    /** Sets aside a record the database will never accept, e.g. for a quiz deleted meanwhile. */
+    public synchronized void reject(Entry entry) throws IOException {
+        try (FileChannel rejected = FileChannel.open(dir.resolve(REJECTED),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            rejected.write(ByteBuffer.wrap(encode(entry.attempt())));
+            rejected.force(false);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        // Not interrupted: an interrupt during a write would close the channel under it.
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        List<Append> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            write(rest);
+        }
+        channel.close();
+    }
+
+    private void drain() {
+        List<Append> batch = new ArrayList<>(maxBatch);
+        try {
+            while (running) {
+                Append first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(List<Append> batch) {
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        long total = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(batch.get(i).record());
+            total += buffers[i].remaining();
+        }
+        try {
+            synchronized (this) {
+                channel.position(end);
+                for (long written = 0; written < total; ) {
+                    written += channel.write(buffers);
+                }
+                channel.force(false);
+                end += total;
+                batch.forEach(append -> pending.put(append.attempt().idempotencyKey(), append.attempt()));
+            }
+            batch.forEach(append -> append.written().complete(null));
+        } catch (IOException ex) {
+            log.error("Could not write {} attempts to the journal", batch.size(), ex);
+            synchronized (this) {
+                try {
+                    channel.truncate(end);
+                } catch (IOException truncateFailure) {
+                    ex.addSuppressed(truncateFailure);
+                }
+            }
+            batch.forEach(append -> append.written().completeExceptionally(ex));
+        }
+    }
+
+    private Entry read(long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (!readFully(header, position)) {
+            return null;
+        }
+        int length = header.getInt(0);
+        if (length <= 0 || length > MAX_RECORD_BYTES) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        if (!readFully(payload, position + HEADER_BYTES)) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        if ((int) crc.getValue() != header.getInt(4)) {
+            return null;
+        }
+        try {
+            ScoredAttempt attempt = ScoredAttempt.readFrom(new DataInputStream(new ByteArrayInputStream(payload.array())));
+            return new Entry(position, position + HEADER_BYTES + length, attempt);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encode(ScoredAttempt attempt) {
+        try {
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(raw);
+            out.writeLong(0);
+            attempt.writeTo(out);
+            byte[] record = raw.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(record, HEADER_BYTES, record.length - HEADER_BYTES);
+            ByteBuffer.wrap(record).putInt(0, record.length - HEADER_BYTES).putInt(4, (int) crc.getValue());
+            return record;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = dir.resolve(CHECKPOINT);
+        if (!Files.exists(file) || Files.size(file) != Long.BYTES) {
+            return 0;
+        }
+        long offset = ByteBuffer.wrap(Files.readAllBytes(file)).getLong();
+        // Past the end only if the log was emptied after the checkpoint was written.
+        return offset <= channel.size() ? offset : 0;
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        Path file = dir.resolve(CHECKPOINT);
+        Path temp = dir.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(ByteBuffer.allocate(Long.BYTES).putLong(0, offset));
+            out.force(false);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public record Entry(long offset, long next, ScoredAttempt attempt) {
+    }
+
+    private record Append(ScoredAttempt attempt, byte[] record, CompletableFuture<Void> written) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.examly.springapp.journal;
+
+import com.examly.springapp.model.AttemptAnswer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A graded submission that has not been stored yet. Carries everything needed to insert the
+ * attempt later, including the quiz title for the response, so it can sit in the journal while
+ * the database is unavailable. The request fingerprint is null for submissions without a
+ * client-supplied idempotency key.
+ */
+public record ScoredAttempt(String idempotencyKey, String requestFingerprint, long quizId, String quizTitle,
+                            String studentName, int score, double points, int totalQuestions, long completedAt,
+                            List<AttemptAnswer> answers) {
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeUTF(idempotencyKey);
+        writeNullable(out, requestFingerprint);
+        out.writeLong(quizId);
+        writeNullable(out, quizTitle);
+        writeNullable(out, studentName);
+        out.writeInt(score);
+        out.writeDouble(points);
+        out.writeInt(totalQuestions);
+        out.writeLong(completedAt);
+        out.writeInt(answers.size());
+        for (AttemptAnswer answer : answers) {
+            out.writeLong(answer.getQuestionId());
+            out.writeLong(answer.getOptionId());
+            out.writeBoolean(answer.isCorrect());
+        }
+    }
+
+    static ScoredAttempt readFrom(DataInput in) throws IOException {
+        String idempotencyKey = in.readUTF();
+        String requestFingerprint = readNullable(in);
+        long quizId = in.readLong();
+        String quizTitle = readNullable(in);
+        String studentName = readNullable(in);
+        int score = in.readInt();
+        double points = in.readDouble();
+        int totalQuestions = in.readInt();
+        long completedAt = in.readLong();
+        int count = in.readInt();
+        List<AttemptAnswer> answers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            answers.add(new AttemptAnswer(in.readLong(), in.readLong(), in.readBoolean()));
+        }
+        return new ScoredAttempt(idempotencyKey, requestFingerprint, quizId, quizTitle, studentName, score, points,
+                totalQuestions, completedAt, answers);
+    }
+
+    private static void writeNullable(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
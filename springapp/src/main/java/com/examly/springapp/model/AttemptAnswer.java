@@ -0,0 +1,21 @@
+package com.examly.springapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+/** One selected option of an attempt, with whether it was a correct pick. */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptAnswer {
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @Column(name = "option_id", nullable = false)
+    private Long optionId;
+
+    @Column(nullable = false)
+    private boolean correct;
+}
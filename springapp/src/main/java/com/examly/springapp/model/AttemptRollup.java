@@ -0,0 +1,30 @@
+package com.examly.springapp.model;
+
+import jakarta.persistence.*;
+import java.util.Date;
+import lombok.*;
+
+/**
+ * Attempt totals for one quiz over one time bucket. Averages are derived from the sums, so
+ * buckets from several flushes or instances simply add up.
+ */
+@MappedSuperclass
+@Getter
+@Setter
+@NoArgsConstructor
+public abstract class AttemptRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "bucket_start", nullable = false)
+    private Date bucketStart;
+
+    private long attempts;
+    private long scoreSum;
+    private long questionSum;
+}
@@ -0,0 +1,32 @@
+package com.examly.springapp.model;
+
+import jakarta.persistence.*;
+import java.util.Date;
+import lombok.*;
+
+@Entity
+@Table(name = "cache_invalidation_outbox", indexes = {
+        @Index(name = "idx_cache_invalidation_created", columnList = "created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String entity;
+
+    private Long entityId;
+    private Long version;
+
+    @Column(nullable = false)
+    private String origin;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+}
@@ -0,0 +1,39 @@
+package com.examly.springapp.model;
+
+import jakarta.persistence.*;
+import java.util.Date;
+import lombok.*;
+
+/** One entry of the content change feed; the identity column doubles as the sync sequence. */
+@Entity
+@Table(name = "content_changes", indexes = {
+        @Index(name = "idx_content_changes_changed", columnList = "changed_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentChange {
+    public static final String QUIZ = "QUIZ";
+    public static final String QUESTION = "QUESTION";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String entity;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private Long quizId;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "changed_at", nullable = false)
+    private Date changedAt;
+}
@@ -0,0 +1,39 @@
+package com.examly.springapp.model;
+
+import jakarta.persistence.*;
+import java.util.Date;
+import lombok.*;
+
+/**
+ * The questions a student drew from a bank quiz, recorded when the paper is first served so that
+ * the paper and its grading use the same set however the bank changes afterwards.
+ */
+@Entity
+@Table(name = "drawn_papers", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_drawn_papers_student", columnNames = {"quiz_id", "quiz_version", "student_key"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DrawnPaper {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+
+    @Column(name = "quiz_version", nullable = false)
+    private Long quizVersion;
+
+    @Column(name = "student_key", nullable = false)
+    private String studentKey;
+
+    // Comma-separated question ids; always read and written as a whole.
+    @Column(name = "question_ids", nullable = false, length = 4000)
+    private String questionIds;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+}
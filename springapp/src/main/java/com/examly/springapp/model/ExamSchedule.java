@@ -0,0 +1,44 @@
+package com.examly.springapp.model;
+
+import jakarta.persistence.*;
+import java.util.Date;
+import java.util.List;
+import lombok.*;
+
+@Entity
+@Table(name = "exam_schedules", indexes = {
+        @Index(name = "idx_exam_schedules_window", columnList = "opens_at, closes_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamSchedule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "quiz_id", nullable = false)
+    private Quiz quiz;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "opens_at", nullable = false)
+    private Date opensAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "closes_at", nullable = false)
+    private Date closesAt;
+
+    @Column(nullable = false)
+    private Integer expectedRoster;
+
+    // Usernames expected to sit the exam; when empty, only the quiz snapshot is prepared.
+    @ElementCollection
+    @CollectionTable(name = "exam_roster", joinColumns = @JoinColumn(name = "exam_id"))
+    @Column(name = "username")
+    private List<String> roster;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+}
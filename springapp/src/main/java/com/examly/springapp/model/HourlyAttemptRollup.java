@@ -0,0 +1,14 @@
+package com.examly.springapp.model;
+
+import jakarta.persistence.*;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "attempt_rollups_hourly", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_attempt_rollups_hourly_quiz_bucket", columnNames = {"quiz_id", "bucket_start"})
+}, indexes = {
+        @Index(name = "idx_attempt_rollups_hourly_bucket", columnList = "bucket_start")
+})
+@NoArgsConstructor
+public class HourlyAttemptRollup extends AttemptRollup {
+}
@@ -1,8 +1,12 @@
 package com.examly.springapp.model;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Entity
 @Table(name = "options")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "options")
 @Data
 @Builder
 @NoArgsConstructor
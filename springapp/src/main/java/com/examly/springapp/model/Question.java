@@ -2,10 +2,15 @@ package com.examly.springapp.model;
 
 import jakarta.persistence.*;
 import java.util.List;
+import java.util.Set;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "questions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "questions")
 @Data
 @Builder
 @NoArgsConstructor
@@ -23,7 +28,14 @@ public class Question {
     private String questionType;
 
     @OneToMany(mappedBy = "question", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "question-options")
     private List<Option> options;
 
+    @ElementCollection
+    @CollectionTable(name = "question_tags", joinColumns = @JoinColumn(name = "question_id"),
+            indexes = @Index(name = "idx_question_tags_tag", columnList = "tag"))
+    @Column(name = "tag")
+    private Set<String> tags;
+
 
 }
\ No newline at end of file
@@ -3,8 +3,12 @@ import jakarta.persistence.*;
 import java.util.Date;
 import java.util.List;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Entity
 @Table(name = "quizzes")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "quizzes")
 @Data
 @Builder
 @NoArgsConstructor
@@ -16,13 +20,48 @@ public class Quiz {
     private String title;
     private String description;
     private Integer timeLimit;
+    private String bankTag;
+    private Integer drawCount;
     @Temporal(TemporalType.TIMESTAMP)
     private Date createdAt;
     @Temporal(TemporalType.TIMESTAMP)
     private Date updatedAt;
+    @Version
+    private Long version;
+    @Enumerated(EnumType.STRING)
+    private QuizStatus status;
+    private Long lineageId;
+    private Integer revision;
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date publishedAt;
     @OneToMany(mappedBy = "quiz", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "quiz-questions")
     private List<Question> questions;
     @OneToMany(mappedBy = "quiz", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<QuizAttempt> quizAttempts;
+    /**
+     * Whether it may be changed in place: drafts, and published versions nobody has attempted yet,
+     * since no score depends on their content.
+     */
+    public boolean isEditable(boolean attempted) {
+        return status == QuizStatus.DRAFT || (status == QuizStatus.PUBLISHED && !attempted);
+    }
+    public boolean isAttemptable() {
+        return status == QuizStatus.PUBLISHED;
+    }
+    /** Rows written without a status are plain quizzes, published as they are created. */
+    @PrePersist
+    void defaultStatus() {
+        if (status == null) {
+            status = QuizStatus.PUBLISHED;
+            publishedAt = createdAt != null ? createdAt : new Date();
+        }
+        if (revision == null) {
+            revision = 1;
+        }
+    }
+    public Long lineage() {
+        return lineageId != null ? lineageId : id;
+    }
 
 }
\ No newline at end of file
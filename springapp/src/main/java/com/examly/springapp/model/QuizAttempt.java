@@ -2,10 +2,15 @@ package com.examly.springapp.model;
 
 import jakarta.persistence.*;
 import java.util.Date;
+import java.util.List;
 import lombok.*;
 
 @Entity
-@Table(name = "quiz_attempts")
+@Table(name = "quiz_attempts", indexes = {
+        // Covers the student history projection, so it is answered from the index alone.
+        @Index(name = "idx_attempts_student_completed",
+                columnList = "student_id, completed_at, quiz_id, score, points, total_questions, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,12 +24,33 @@ public class QuizAttempt {
     @JoinColumn(name = "quiz_id", nullable = false)
     private Quiz quiz;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id")
+    private Student student;
+
     private String studentName;
+    @Column(name = "score")
     private Integer score;
+    // Exact points including partial credit and penalties; score is this rounded, for older clients.
+    @Column(name = "points")
+    private Double points;
+    @Column(name = "total_questions")
     private Integer totalQuestions;
 
     @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "completed_at")
     private Date completedAt;
 
+    @Column(unique = true)
+    private String idempotencyKey;
+
+    @Column(length = 64)
+    private String requestFingerprint;
+
+    @ElementCollection
+    @CollectionTable(name = "attempt_answers", joinColumns = @JoinColumn(name = "attempt_id"),
+            indexes = @Index(name = "idx_attempt_answers_attempt", columnList = "attempt_id"))
+    private List<AttemptAnswer> answers;
+
 
 }
\ No newline at end of file
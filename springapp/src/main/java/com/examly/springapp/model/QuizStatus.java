@@ -0,0 +1,12 @@
+package com.examly.springapp.model;
+
+/**
+ * Lifecycle of a quiz version. Quizzes are created published, and stay editable in place until
+ * their first attempt; after that, changes go through a draft copy. Publishing a draft retires the
+ * previously published version of the same quiz. Only published versions can be attempted.
+ */
+public enum QuizStatus {
+    DRAFT,
+    PUBLISHED,
+    RETIRED
+}
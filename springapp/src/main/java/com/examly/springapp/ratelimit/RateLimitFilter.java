@@ -0,0 +1,133 @@
+package com.examly.springapp.ratelimit;
+
+import com.examly.springapp.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client, per-endpoint-group rate limiting. The client is the authenticated principal or,
+ * for anonymous requests, the remote address; behind a proxy that address comes from the
+ * forwarded headers ({@code server.forward-headers-strategy}), never from a header the client
+ * picks freely. Anonymous clients sharing an address share its buckets, so the configured limits
+ * have to fit a whole classroom behind one NAT. Buckets live in a cache bounded by {@code max-clients}, are created on first use
+ * and evicted once idle; rejected requests get 429 with Retry-After.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final List<Limit> limits;
+    private final Cache<String, TokenBucket> buckets;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.limits = properties.getGroups().stream()
+                .map(group -> new Limit(group, meterRegistry))
+                .toList();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .build();
+        Gauge.builder("quiz.ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Active rate-limit buckets")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Limit limit = match(request);
+        if (limit == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(limit.name + '|' + clientKey(request), key -> new TokenBucket(now));
+        long waitNanos = bucket.tryAcquire(now, limit.emissionIntervalNanos, limit.burstToleranceNanos);
+        if (waitNanos == 0) {
+            limit.allowed.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+        limit.rejected.increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), List.of("Too many requests")));
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.rate-limit.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleEviction().toNanos();
+        buckets.asMap().values().removeIf(bucket -> bucket.idleSince(now, idleNanos));
+    }
+
+    private Limit match(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        for (Limit limit : limits) {
+            if ((limit.methods.isEmpty() || limit.methods.contains(method)) && pathMatcher.match(limit.pattern, path)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : request.getRemoteAddr();
+    }
+
+    private static final class Limit {
+        final String name;
+        final String pattern;
+        final List<String> methods;
+        final long emissionIntervalNanos;
+        final long burstToleranceNanos;
+        final Counter allowed;
+        final Counter rejected;
+
+        Limit(RateLimitProperties.Group group, MeterRegistry meterRegistry) {
+            this.name = group.getName();
+            this.pattern = group.getPattern();
+            this.methods = group.getMethods();
+            this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / group.getRefillPerSecond());
+            this.burstToleranceNanos = emissionIntervalNanos * group.getCapacity();
+            this.allowed = Counter.builder("quiz.ratelimit.requests")
+                    .tag("group", name).tag("outcome", "allowed")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("quiz.ratelimit.requests")
+                    .tag("group", name).tag("outcome", "rejected")
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.examly.springapp.repository;
+import com.examly.springapp.model.AttemptRollup;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+import java.util.Date;
+import java.util.List;
+@NoRepositoryBean
+public interface AttemptRollupRepository<T extends AttemptRollup> extends JpaRepository<T, Long> {
+    @Transactional
+    @Modifying
+    @Query("update #{#entityName} r set r.attempts = r.attempts + :attempts, r.scoreSum = r.scoreSum + :scoreSum,"
+            + " r.questionSum = r.questionSum + :questionSum where r.quizId = :quizId and r.bucketStart = :bucketStart")
+    int increment(@Param("quizId") Long quizId, @Param("bucketStart") Date bucketStart, @Param("attempts") long attempts,
+                  @Param("scoreSum") long scoreSum, @Param("questionSum") long questionSum);
+    List<T> findByQuizIdAndBucketStartBetweenOrderByBucketStart(Long quizId, Date from, Date to);
+    List<T> findByBucketStartBetweenOrderByBucketStartAscQuizIdAsc(Date from, Date to);
+}
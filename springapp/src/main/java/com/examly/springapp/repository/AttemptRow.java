@@ -0,0 +1,19 @@
+package com.examly.springapp.repository;
+
+import java.util.Date;
+
+/**
+ * Flat, read-only view of an attempt joined with its quiz title. Queries returning this type
+ * select only these columns and never put entities into the persistence context.
+ */
+public interface AttemptRow {
+    Long getId();
+    Long getQuizId();
+    String getQuizTitle();
+    Long getStudentId();
+    String getStudentName();
+    Integer getScore();
+    Double getPoints();
+    Integer getTotalQuestions();
+    Date getCompletedAt();
+}
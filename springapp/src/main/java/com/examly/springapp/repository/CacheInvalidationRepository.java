@@ -0,0 +1,22 @@
+package com.examly.springapp.repository;
+import com.examly.springapp.model.CacheInvalidation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import jakarta.transaction.Transactional;
+import java.util.Date;
+import java.util.List;
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+    @Query("select coalesce(max(c.id), 0) from CacheInvalidation c")
+    long findMaxId();
+    @Query("select c from CacheInvalidation c where c.id > :afterId order by c.id")
+    List<CacheInvalidation> findAfter(@Param("afterId") Long afterId, Pageable page);
+    @Transactional
+    @Modifying
+    @Query("delete from CacheInvalidation c where c.createdAt < :before")
+    int deleteOlderThan(@Param("before") Date before);
+}
@@ -0,0 +1,26 @@
+package com.examly.springapp.repository;
+import com.examly.springapp.model.ContentChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import jakarta.transaction.Transactional;
+import java.util.Date;
+import java.util.List;
+@Repository
+public interface ContentChangeRepository extends JpaRepository<ContentChange, Long> {
+    @Query("select coalesce(max(c.id), 0) from ContentChange c")
+    long findMaxId();
+    @Query("select coalesce(min(c.id), 0) from ContentChange c")
+    long findMinId();
+    @Query("select c from ContentChange c where c.id > :afterId order by c.id")
+    List<ContentChange> findAfter(@Param("afterId") Long afterId, Pageable page);
+    @Query("select coalesce(max(c.id), 0) from ContentChange c where c.changedAt < :before")
+    long findMaxIdBefore(@Param("before") Date before);
+    @Transactional
+    @Modifying
+    @Query("delete from ContentChange c where c.changedAt < :before")
+    int deleteOlderThan(@Param("before") Date before);
+}
@@ -0,0 +1,6 @@
+package com.examly.springapp.repository;
+import com.examly.springapp.model.DailyAttemptRollup;
+import org.springframework.stereotype.Repository;
+@Repository
+public interface DailyAttemptRollupRepository extends AttemptRollupRepository<DailyAttemptRollup> {
+}
@@ -0,0 +1,15 @@
+package com.examly.springapp.repository;
+import com.examly.springapp.model.DrawnPaper;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+@Repository
+public interface DrawnPaperRepository extends JpaRepository<DrawnPaper, Long> {
+    Optional<DrawnPaper> findByQuizIdAndQuizVersionAndStudentKey(Long quizId, Long quizVersion, String studentKey);
+    @Modifying
+    @Query("delete from DrawnPaper d where d.quizId = :quizId")
+    int deleteByQuizId(@Param("quizId") Long quizId);
+}
@@ -0,0 +1,16 @@
+package com.examly.springapp.repository;
+import com.examly.springapp.model.ExamSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Date;
+import java.util.List;
+@Repository
+public interface ExamScheduleRepository extends JpaRepository<ExamSchedule, Long> {
+    @Query("select distinct e from ExamSchedule e join fetch e.quiz left join fetch e.roster where e.opensAt <= :horizon and e.closesAt > :now order by e.opensAt")
+    List<ExamSchedule> findOpeningBefore(@Param("horizon") Date horizon, @Param("now") Date now);
+    @Query("select distinct e from ExamSchedule e join fetch e.quiz left join fetch e.roster where e.closesAt > :now order by e.opensAt")
+    List<ExamSchedule> findNotClosed(@Param("now") Date now);
+    List<ExamSchedule> findByQuizId(Long quizId);
+}
@@ -0,0 +1,6 @@
+package com.examly.springapp.repository;
+import com.examly.springapp.model.HourlyAttemptRollup;
+import org.springframework.stereotype.Repository;
+@Repository
+public interface HourlyAttemptRollupRepository extends AttemptRollupRepository<HourlyAttemptRollup> {
+}
@@ -0,0 +1,27 @@
+package com.examly.springapp.repository;
+import com.examly.springapp.model.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import jakarta.transaction.Transactional;
+import java.util.Date;
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+    @Transactional
+    @Modifying
+    @Query("update JobLease l set l.owner = :owner, l.expiresAt = :expiresAt"
+            + " where l.name = :name and (l.owner = :owner or l.expiresAt < :now)")
+    int claim(@Param("name") String name, @Param("owner") String owner, @Param("expiresAt") Date expiresAt,
+              @Param("now") Date now);
+    // Plain insert rather than save(), which would merge over a lease held by another node.
+    @Transactional
+    @Modifying
+    @Query(value = "insert into job_leases (name, owner, expires_at) values (:name, :owner, :expiresAt)", nativeQuery = true)
+    int create(@Param("name") String name, @Param("owner") String owner, @Param("expiresAt") Date expiresAt);
+    @Transactional
+    @Modifying
+    @Query("update JobLease l set l.expiresAt = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Date now);
+}
@@ -1,9 +1,27 @@
 package com.examly.springapp.repository;
 import com.examly.springapp.model.Question;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, Long> {
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "quiz-question-queries")
+    })
     List<Question> findByQuizId(Long quizId);
-}
\ No newline at end of file
+    @Query("select distinct q from Question q left join fetch q.options where q.quiz.id = :quizId order by q.id")
+    List<Question> findWithOptionsByQuizId(@Param("quizId") Long quizId);
+    @Query("select distinct q from Question q left join fetch q.options where q.quiz.id in :quizIds order by q.id")
+    List<Question> findWithOptionsByQuizIdIn(@Param("quizIds") Collection<Long> quizIds);
+    @Query("select distinct q from Question q left join fetch q.options where q.id in :ids")
+    List<Question> findWithOptionsByIdIn(@Param("ids") Collection<Long> ids);
+    @Query("select q.id from Question q join q.tags t where t = :tag"
+            + " and q.quiz.status = com.examly.springapp.model.QuizStatus.PUBLISHED order by q.id")
+    List<Long> findIdsByTag(@Param("tag") String tag);
+}
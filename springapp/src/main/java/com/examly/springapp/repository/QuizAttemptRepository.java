@@ -1,9 +1,50 @@
 package com.examly.springapp.repository;
 import com.examly.springapp.model.QuizAttempt;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 @Repository
 public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
-    List<QuizAttempt> findByQuizId(Long quizId);
-}
\ No newline at end of file
+    Optional<QuizAttempt> findByIdempotencyKey(String idempotencyKey);
+    long countByCompletedAtBetween(Date from, Date to);
+    boolean existsByQuizId(Long quizId);
+    @Query("select a.id as id, q.id as quizId, q.title as quizTitle, a.student.id as studentId, a.studentName as studentName, a.score as score, a.points as points,"
+            + " a.totalQuestions as totalQuestions, a.completedAt as completedAt"
+            + " from QuizAttempt a join a.quiz q"
+            + " where a.id > :afterId and a.completedAt between :from and :to order by a.id")
+    List<AttemptRow> findRowsAfter(@Param("afterId") Long afterId, @Param("from") Date from, @Param("to") Date to,
+                                   Pageable page);
+    @Query("select a.id as id, q.id as quizId, q.title as quizTitle, a.student.id as studentId, a.studentName as studentName, a.score as score, a.points as points,"
+            + " a.totalQuestions as totalQuestions, a.completedAt as completedAt"
+            + " from QuizAttempt a join a.quiz q where q.id = :quizId order by a.id")
+    List<AttemptRow> findRowsByQuizId(@Param("quizId") Long quizId);
+    @Query("select a.id as id, q.id as quizId, q.title as quizTitle, a.student.id as studentId, a.studentName as studentName, a.score as score, a.points as points,"
+            + " a.totalQuestions as totalQuestions, a.completedAt as completedAt"
+            + " from QuizAttempt a join a.quiz q order by a.id")
+    List<AttemptRow> findAllRows();
+    @Query("select a.quiz.id from QuizAttempt a where a.completedAt >= :since group by a.quiz.id order by count(a) desc")
+    List<Long> findRecentlyActiveQuizIds(@Param("since") Date since, Pageable page);
+    @Query("select a.id as id, a.quiz.id as quizId, a.score as score, a.points as points, a.totalQuestions as totalQuestions,"
+            + " a.completedAt as completedAt from QuizAttempt a where a.student.id = :studentId order by a.completedAt desc")
+    List<StudentAttemptRow> findHistoryByStudentId(@Param("studentId") Long studentId);
+    @Query("select a.id as attemptId, ans.questionId as questionId, ans.optionId as optionId"
+            + " from QuizAttempt a join a.answers ans where a.quiz.id = :quizId and ans.correct = false order by a.id")
+    List<WrongAnswerRow> findWrongAnswersByQuizId(@Param("quizId") Long quizId);
+    @Transactional
+    @Modifying
+    @Query(value = "delete from attempt_answers where attempt_id in :ids", nativeQuery = true)
+    int deleteAnswersByAttemptIdIn(@Param("ids") Collection<Long> ids);
+    @Modifying
+    @Query(value = "update quiz_attempts a set student_id = (select s.id from students s where s.username = a.student_name)"
+            + " where a.student_id is null and exists (select 1 from students s where s.username = a.student_name)",
+            nativeQuery = true)
+    int linkStudentsByName();
+}
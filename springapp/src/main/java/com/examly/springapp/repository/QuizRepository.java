@@ -1,7 +1,42 @@
 package com.examly.springapp.repository;
 import com.examly.springapp.model.Quiz;
+import com.examly.springapp.model.QuizStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
+    @Modifying
+    @Query("update Quiz q set q.title = coalesce(cast(:title as String), q.title), q.description = coalesce(cast(:description as String), q.description),"
+            + " q.timeLimit = coalesce(cast(:timeLimit as Integer), q.timeLimit), q.updatedAt = :updatedAt, q.version = q.version + 1"
+            + " where q.id = :id and q.version = :version"
+            + " and (q.status = com.examly.springapp.model.QuizStatus.DRAFT"
+            + " or (q.status = com.examly.springapp.model.QuizStatus.PUBLISHED"
+            + " and not exists (select a.id from QuizAttempt a where a.quiz.id = q.id)))")
+    int patch(@Param("id") Long id, @Param("version") Long version, @Param("title") String title,
+              @Param("description") String description, @Param("timeLimit") Integer timeLimit,
+              @Param("updatedAt") Date updatedAt);
+    List<Quiz> findByStatus(QuizStatus status);
+    @Query("select q.id from Quiz q where q.bankTag in :tags")
+    List<Long> findIdsByBankTagIn(@Param("tags") Collection<String> tags);
+    @Query("select q from Quiz q where q.id = :lineage or q.lineageId = :lineage order by q.revision, q.id")
+    List<Quiz> findLineage(@Param("lineage") Long lineage);
+    @Query("select q from Quiz q where (q.id = :lineage or q.lineageId = :lineage) and q.status = :status")
+    List<Quiz> findLineageByStatus(@Param("lineage") Long lineage, @Param("status") QuizStatus status);
+    @Query("select coalesce(max(q.revision), 1) from Quiz q where q.id = :lineage or q.lineageId = :lineage")
+    int findMaxRevision(@Param("lineage") Long lineage);
+    @Modifying
+    @Query(value = "update quizzes set version = 0 where version is null", nativeQuery = true)
+    int initializeMissingVersions();
+    @Query("select q.id from Quiz q where q.status is null")
+    List<Long> findIdsWithoutStatus();
+    @Modifying
+    @Query(value = "update quizzes set status = 'PUBLISHED', revision = coalesce(revision, 1),"
+            + " published_at = coalesce(published_at, created_at) where status is null", nativeQuery = true)
+    int publishQuizzesWithoutStatus();
 }
\ No newline at end of file
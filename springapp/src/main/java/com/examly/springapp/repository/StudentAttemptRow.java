@@ -0,0 +1,15 @@
+package com.examly.springapp.repository;
+
+import java.util.Date;
+
+/**
+ * Student history entry; every column comes from idx_attempts_student_completed.
+ */
+public interface StudentAttemptRow {
+    Long getId();
+    Long getQuizId();
+    Integer getScore();
+    Double getPoints();
+    Integer getTotalQuestions();
+    Date getCompletedAt();
+}
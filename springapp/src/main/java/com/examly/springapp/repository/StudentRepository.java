@@ -2,7 +2,9 @@ package com.examly.springapp.repository;
 
 import com.examly.springapp.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +17,10 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    @Query("select s.username from Student s")
+    List<String> findAllUsernames();
+    
+    @Query("select s.email from Student s where s.email is not null")
+    List<String> findAllEmails();
 }
\ No newline at end of file
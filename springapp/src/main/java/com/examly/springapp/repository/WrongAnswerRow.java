@@ -0,0 +1,7 @@
+package com.examly.springapp.repository;
+/** One wrong pick of an attempt, for answer-similarity analysis. */
+public interface WrongAnswerRow {
+    Long getAttemptId();
+    Long getQuestionId();
+    Long getOptionId();
+}
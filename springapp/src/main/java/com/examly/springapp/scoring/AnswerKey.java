@@ -0,0 +1,50 @@
+package com.examly.springapp.scoring;
+
+import com.examly.springapp.cache.QuizSnapshot;
+
+/**
+ * A quiz's correct answers compiled to one bitmask per question, bit {@code i} standing for the
+ * option at canonical position {@code i}. Grading a question is then a couple of bit operations
+ * on primitives. Only the first {@link #MAX_OPTIONS} options of a question can be represented.
+ */
+public final class AnswerKey {
+
+    public static final int MAX_OPTIONS = Long.SIZE;
+
+    private final ScoringMode[] modes;
+    private final long[] correctMasks;
+
+    private AnswerKey(ScoringMode[] modes, long[] correctMasks) {
+        this.modes = modes;
+        this.correctMasks = correctMasks;
+    }
+
+    public static AnswerKey compile(QuizSnapshot snapshot) {
+        int count = snapshot.questionCount();
+        ScoringMode[] modes = new ScoringMode[count];
+        long[] correctMasks = new long[count];
+        for (int q = 0; q < count; q++) {
+            QuizSnapshot.QuestionEntry question = snapshot.question(q);
+            modes[q] = ScoringMode.of(question.type());
+            int options = Math.min(question.optionCount(), MAX_OPTIONS);
+            for (int o = 0; o < options; o++) {
+                if (question.option(o).correct()) {
+                    correctMasks[q] |= 1L << o;
+                }
+            }
+        }
+        return new AnswerKey(modes, correctMasks);
+    }
+
+    public int questionCount() {
+        return modes.length;
+    }
+
+    public ScoringMode mode(int question) {
+        return modes[question];
+    }
+
+    public long correctMask(int question) {
+        return correctMasks[question];
+    }
+}
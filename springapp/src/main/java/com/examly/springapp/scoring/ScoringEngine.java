@@ -0,0 +1,94 @@
+package com.examly.springapp.scoring;
+
+import com.examly.springapp.cache.QuizSnapshot;
+import com.examly.springapp.dto.AnswerDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Grades submissions against a compiled {@link AnswerKey}. Answers are first folded into one
+ * selection mask per question (one {@code long[]} per submission); scoring then walks the
+ * primitive arrays without allocating. Every question is worth one point.
+ */
+@Component
+public class ScoringEngine {
+
+    private final double negativePenalty;
+
+    public ScoringEngine(@Value("${quiz.scoring.negative-penalty:0.25}") double negativePenalty) {
+        this.negativePenalty = negativePenalty;
+    }
+
+    /** Total points for the answers, never below zero. */
+    public double grade(QuizSnapshot snapshot, List<AnswerDTO> answers) {
+        return score(snapshot.answerKey(), selections(snapshot, answers));
+    }
+
+    /**
+     * Selection mask per canonical question position. Answers for questions outside the snapshot,
+     * and options it does not know, are ignored.
+     */
+    public static long[] selections(QuizSnapshot snapshot, List<AnswerDTO> answers) {
+        long[] selections = new long[snapshot.questionCount()];
+        for (AnswerDTO answer : answers) {
+            int q = snapshot.indexOf(answer.getQuestionId());
+            if (q < 0) {
+                continue;
+            }
+            QuizSnapshot.QuestionEntry question = snapshot.question(q);
+            if (answer.getSelectedOptionId() != null) {
+                selections[q] |= bit(question, answer.getSelectedOptionId());
+            }
+            if (answer.getSelectedOptionIds() != null) {
+                for (Long optionId : answer.getSelectedOptionIds()) {
+                    if (optionId != null) {
+                        selections[q] |= bit(question, optionId);
+                    }
+                }
+            }
+        }
+        return selections;
+    }
+
+    public double score(AnswerKey key, long[] selections) {
+        double total = 0;
+        for (int q = 0; q < key.questionCount(); q++) {
+            total += score(key.mode(q), key.correctMask(q), selections[q]);
+        }
+        return Math.max(0, total);
+    }
+
+    /** Points for one question of the key; zero when nothing is selected, whatever the mode. */
+    public double score(AnswerKey key, int question, long selected) {
+        return score(key.mode(question), key.correctMask(question), selected);
+    }
+
+    private double score(ScoringMode mode, long correct, long selected) {
+        switch (mode) {
+            case MULTI_SELECT:
+                return (selected ^ correct) == 0 && correct != 0 ? 1 : 0;
+            case PARTIAL_CREDIT: {
+                int correctCount = Long.bitCount(correct);
+                if (correctCount == 0) {
+                    return 0;
+                }
+                int net = Long.bitCount(selected & correct) - Long.bitCount(selected & ~correct);
+                return net > 0 ? (double) net / correctCount : 0;
+            }
+            case NEGATIVE_MARKING:
+                if (selected == 0) {
+                    return 0;
+                }
+                return Long.bitCount(selected) == 1 && (selected & correct) != 0 ? 1 : -negativePenalty;
+            default:
+                return Long.bitCount(selected) == 1 && (selected & correct) != 0 ? 1 : 0;
+        }
+    }
+
+    private static long bit(QuizSnapshot.QuestionEntry question, long optionId) {
+        int position = question.optionIndex(optionId);
+        return position >= 0 && position < AnswerKey.MAX_OPTIONS ? 1L << position : 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.examly.springapp.scoring;
+
+import java.util.Locale;
+
+/**
+ * How a question is graded, derived from its free-form {@code questionType}. Types that name no
+ * known mode (MULTIPLE_CHOICE, TRUE_FALSE, ...) keep the original one-correct-option grading.
+ */
+public enum ScoringMode {
+
+    /** One option is picked; full credit if it is a correct one. */
+    SINGLE_CHOICE,
+    /** Any number of options are picked; full credit only for exactly the correct set. */
+    MULTI_SELECT,
+    /** Credit per correct option picked, less one per wrong option picked, never below zero. */
+    PARTIAL_CREDIT,
+    /** Like single choice, but a wrong pick costs the configured penalty; no pick costs nothing. */
+    NEGATIVE_MARKING;
+
+    public static ScoringMode of(String questionType) {
+        if (questionType == null) {
+            return SINGLE_CHOICE;
+        }
+        String name = questionType.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        for (ScoringMode mode : values()) {
+            if (mode.name().equals(name)) {
+                return mode;
+            }
+        }
+        return SINGLE_CHOICE;
+    }
+
+    /** Whether a question of this mode may have more than one correct option. */
+    public boolean allowsSeveralCorrect() {
+        return this == MULTI_SELECT || this == PARTIAL_CREDIT;
+    }
+}
@@ -0,0 +1,200 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.archive.AttemptSegmentStore;
+import com.examly.springapp.datasource.WorkloadContext;
+import com.examly.springapp.datasource.WorkloadPool;
+import com.examly.springapp.dto.JobStatusDTO;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ConflictException;
+import com.examly.springapp.exception.ResourceNotFoundException;
+import com.examly.springapp.job.BackgroundJob;
+import com.examly.springapp.job.JobRegistry;
+import com.examly.springapp.repository.AttemptRow;
+import com.examly.springapp.repository.QuizAttemptRepository;
+import com.examly.springapp.repository.QuizRepository;
+import com.examly.springapp.repository.WrongAnswerRow;
+import com.examly.springapp.similarity.MinHashLsh;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Flags pairs of attempts on a quiz whose wrong answers are unusually alike. Each attempt's set
+ * of wrong picks is reduced to a MinHash signature and LSH banding proposes candidate pairs, so
+ * the work grows with the number of attempts rather than with every pair of them. Candidates are
+ * confirmed with the exact Jaccard similarity. Runs as a background job on its own fork-join pool;
+ * the result is a CSV downloadable like any report. Archived attempts keep no answers, so a quiz
+ * with archived attempts is refused rather than analysed in part.
+ */
+@Service
+public class AnswerSimilarityService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnswerSimilarityService.class);
+    private static final String ANSWER_SIMILARITY = "answer-similarity";
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private AttemptSegmentStore attemptSegmentStore;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Value("${quiz.reports.dir:${java.io.tmpdir}/quiz-reports}")
+    private String reportsDir;
+
+    @Value("${quiz.similarity.threshold:0.8}")
+    private double defaultThreshold;
+
+    @Value("${quiz.similarity.min-wrong-answers:3}")
+    private int minWrongAnswers;
+
+    @Value("${quiz.similarity.bands:20}")
+    private int bands;
+
+    @Value("${quiz.similarity.rows:5}")
+    private int rows;
+
+    @Value("${quiz.similarity.max-bucket-size:1000}")
+    private int maxBucketSize;
+
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public JobStatusDTO submitAnalysis(Long quizId, Double threshold) {
+        double minSimilarity = threshold != null ? threshold : defaultThreshold;
+        if (minSimilarity <= 0 || minSimilarity > 1) {
+            throw new BadRequestException("Similarity threshold must be greater than 0 and at most 1");
+        }
+        if (!quizRepository.existsById(quizId)) {
+            throw new ResourceNotFoundException("Quiz not found");
+        }
+        if (attemptSegmentStore.containsQuiz(quizId)) {
+            throw new ConflictException("Attempts of this quiz have been archived without their answers;"
+                    + " answer similarity cannot cover them");
+        }
+        BackgroundJob job = jobRegistry.submit(ANSWER_SIMILARITY,
+                j -> WorkloadContext.run(WorkloadPool.REPORTING, () -> analyse(j, quizId, minSimilarity)));
+        return ReportService.toStatus(job);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void analyse(BackgroundJob job, long quizId, double threshold) {
+        long started = System.nanoTime();
+        List<Long> attemptIds = new ArrayList<>();
+        List<long[]> wrongAnswers = new ArrayList<>();
+        groupByAttempt(quizAttemptRepository.findWrongAnswersByQuizId(quizId), attemptIds, wrongAnswers);
+        int n = attemptIds.size();
+        job.setTotal(n);
+        long[][] features = wrongAnswers.toArray(long[][]::new);
+
+        MinHashLsh lsh = new MinHashLsh(bands, rows, quizId);
+        long[][] signatures = new long[n][];
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(i -> {
+            signatures[i] = lsh.signature(features[i]);
+            job.addProcessed(1);
+        })).join();
+        MinHashLsh.CandidatePairs candidates = lsh.candidatePairs(signatures, maxBucketSize, pool);
+
+        Map<Long, String> students = quizAttemptRepository.findRowsByQuizId(quizId).stream()
+                .filter(row -> row.getStudentName() != null)
+                .collect(Collectors.toMap(AttemptRow::getId, AttemptRow::getStudentName));
+        List<Match> matches = pool.submit(() -> candidates.pairs().parallelStream()
+                .map(pair -> {
+                    int i = (int) (pair >>> 32);
+                    int j = (int) (long) pair;
+                    String a = students.get(attemptIds.get(i));
+                    String b = students.get(attemptIds.get(j));
+                    if (a != null && a.equals(b)) {
+                        return null;
+                    }
+                    double similarity = MinHashLsh.jaccard(features[i], features[j]);
+                    return similarity >= threshold
+                            ? new Match(attemptIds.get(i), a, attemptIds.get(j), b,
+                                    MinHashLsh.intersectionSize(features[i], features[j]), similarity)
+                            : null;
+                })
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingDouble(Match::similarity).reversed()
+                        .thenComparingLong(Match::firstAttemptId))
+                .collect(Collectors.toList())).join();
+
+        write(job, matches);
+        log.info("Answer similarity for quiz {}: {} attempts, {} candidate pairs, {} flagged, {} oversized buckets skipped, {} ms",
+                quizId, n, candidates.pairs().size(), matches.size(), candidates.skippedBuckets(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /** Rows arrive ordered by attempt; attempts with too few wrong answers to mean anything are dropped. */
+    private void groupByAttempt(List<WrongAnswerRow> rows, List<Long> attemptIds, List<long[]> wrongAnswers) {
+        int start = 0;
+        while (start < rows.size()) {
+            Long attemptId = rows.get(start).getAttemptId();
+            int end = start;
+            while (end < rows.size() && rows.get(end).getAttemptId().equals(attemptId)) {
+                end++;
+            }
+            long[] features = new long[end - start];
+            for (int k = start; k < end; k++) {
+                features[k - start] = MinHashLsh.feature(rows.get(k).getQuestionId(), rows.get(k).getOptionId());
+            }
+            features = Arrays.stream(features).sorted().distinct().toArray();
+            if (features.length >= minWrongAnswers) {
+                attemptIds.add(attemptId);
+                wrongAnswers.add(features);
+            }
+            start = end;
+        }
+    }
+
+    private void write(BackgroundJob job, List<Match> matches) {
+        try {
+            Path dir = Files.createDirectories(Paths.get(reportsDir));
+            Path file = dir.resolve(ANSWER_SIMILARITY + "-" + job.getId() + ".csv");
+            job.setResultFile(file);
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("attemptId,studentName,otherAttemptId,otherStudentName,sharedWrongAnswers,similarity");
+                writer.newLine();
+                for (Match match : matches) {
+                    writer.write(match.firstAttemptId() + "," + ReportService.csv(match.firstStudent()) + ","
+                            + match.secondAttemptId() + "," + ReportService.csv(match.secondStudent()) + ","
+                            + match.sharedWrongAnswers() + "," + String.format("%.3f", match.similarity()));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write answer similarity report", ex);
+        }
+    }
+
+    private record Match(long firstAttemptId, String firstStudent, long secondAttemptId, String secondStudent,
+                         int sharedWrongAnswers, double similarity) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.archive.ArchivedAttempt;
+import com.examly.springapp.archive.AttemptSegmentStore;
+import com.examly.springapp.datasource.WorkloadPool;
+import com.examly.springapp.job.JobLeases;
+import com.examly.springapp.repository.AttemptRow;
+import com.examly.springapp.repository.QuizAttemptRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Moves attempts older than {@code quiz.archive.max-age} out of {@code quiz_attempts} into
+ * compressed segment files. A segment is written and synced before its rows are deleted, and is
+ * only published to readers after the delete, so an interrupted run is finished on the next one.
+ * Runs hold the {@code attempt-archive} lease, so only one node archives at a time;
+ * {@code quiz.archive.dir} must be storage shared by every node that serves attempts.
+ */
+@Service
+@WorkloadPool(WorkloadPool.BULK)
+public class AttemptArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptArchiveService.class);
+    private static final int PAGE_SIZE = 1000;
+    private static final String LEASE = "attempt-archive";
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private AttemptSegmentStore attemptSegmentStore;
+
+    @Autowired
+    private JobLeases jobLeases;
+
+    @Value("${quiz.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${quiz.archive.max-age:P365D}")
+    private Duration maxAge;
+
+    @Value("${quiz.archive.segment-size:100000}")
+    private int segmentSize;
+
+    @Value("${quiz.archive.lease:PT1H}")
+    private Duration lease;
+
+    @Scheduled(cron = "${quiz.archive.cron:0 30 3 * * *}")
+    public void archiveOldAttempts() {
+        if (!enabled) {
+            return;
+        }
+        if (!jobLeases.tryAcquire(LEASE, lease)) {
+            log.info("Attempt archival is running on another node; skipping");
+            return;
+        }
+        try {
+            finishPendingSegments();
+            Date cutoff = Date.from(Instant.now().minus(maxAge));
+            long afterId = 0;
+            int archived = 0;
+            List<ArchivedAttempt> segment;
+            do {
+                segment = new ArrayList<>();
+                List<AttemptRow> page;
+                do {
+                    page = quizAttemptRepository.findRowsAfter(afterId, new Date(0), cutoff, PageRequest.ofSize(PAGE_SIZE));
+                    for (AttemptRow row : page) {
+                        segment.add(toArchived(row));
+                        afterId = row.getId();
+                    }
+                } while (page.size() == PAGE_SIZE && segment.size() < segmentSize);
+                if (!segment.isEmpty()) {
+                    if (!jobLeases.tryAcquire(LEASE, lease)) {
+                        log.warn("Lost the archive lease; stopping after {} attempts", archived);
+                        break;
+                    }
+                    Path pending = attemptSegmentStore.writeSegment(segment);
+                    deleteFromDatabase(segment.stream().map(ArchivedAttempt::id).toList());
+                    attemptSegmentStore.commit(pending);
+                    archived += segment.size();
+                }
+            } while (segment.size() >= segmentSize);
+            if (archived > 0) {
+                log.info("Archived {} quiz attempts completed before {}", archived, cutoff.toInstant());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Attempt archival failed", ex);
+        } finally {
+            jobLeases.release(LEASE);
+        }
+    }
+
+    private void finishPendingSegments() throws IOException {
+        for (Path pending : attemptSegmentStore.pendingSegments()) {
+            // The rows may or may not have been deleted before the previous run stopped; deleting by id is idempotent.
+            deleteFromDatabase(attemptSegmentStore.idsIn(pending));
+            attemptSegmentStore.commit(pending);
+            log.info("Completed interrupted archive segment {}", pending.getFileName());
+        }
+    }
+
+    private void deleteFromDatabase(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += PAGE_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + PAGE_SIZE));
+            // Answer rows are not archived; they go first so the attempts' foreign keys allow the delete.
+            quizAttemptRepository.deleteAnswersByAttemptIdIn(chunk);
+            quizAttemptRepository.deleteAllByIdInBatch(chunk);
+        }
+    }
+
+    private static ArchivedAttempt toArchived(AttemptRow row) {
+        return new ArchivedAttempt(row.getId(), row.getQuizId(), row.getQuizTitle(), row.getStudentId(),
+                row.getStudentName(), row.getScore(), row.getPoints(), row.getTotalQuestions(),
+                row.getCompletedAt() != null ? row.getCompletedAt().getTime() : 0L);
+    }
+}
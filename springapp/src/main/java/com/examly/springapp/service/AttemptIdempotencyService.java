@@ -0,0 +1,208 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.AnswerDTO;
+import com.examly.springapp.dto.QuizAttemptDTO;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.UnprocessableEntityException;
+import com.examly.springapp.journal.AttemptJournal;
+import com.examly.springapp.journal.ScoredAttempt;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Deduplicates quiz attempt submissions that carry an {@code Idempotency-Key} header.
+ * Keys seen recently live in a bounded, time-expiring map holding the (possibly still running)
+ * submission, so a concurrent retry waits for the first request instead of scoring again.
+ * The key is also stored on the attempt row, which keeps deduplication working after the
+ * in-memory entry expires or the instance restarts.
+ *
+ * <p>Keys are scoped to the submitting student: what is stored is a digest of the student name
+ * and the key, so two students picking the same key never see each other's attempt. Each key
+ * also records a fingerprint of the request body, and reusing a key for a different submission
+ * is rejected with 422 instead of returning the first result.
+ *
+ * <p>When the database is unavailable, a submission that could still be scored from cached
+ * content is accepted into the {@link AttemptJournal} and answered without an id; it is stored
+ * later by {@link AttemptReplayService}. Submissions without a key get a generated one before
+ * their first write, so an insert that committed just before the connection dropped is found by
+ * replay instead of being stored twice.
+ */
+@Service
+public class AttemptIdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptIdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String GENERATED_KEY_PREFIX = "journal:";
+
+    @Autowired
+    private QuizAttemptService quizAttemptService;
+
+    @Autowired
+    private AttemptJournal attemptJournal;
+
+    private final Cache<String, Submission> submissions;
+
+    public AttemptIdempotencyService(@Value("${quiz.idempotency.max-keys:10000}") long maxKeys,
+                                     @Value("${quiz.idempotency.ttl:PT10M}") Duration ttl) {
+        this.submissions = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public QuizAttemptDTO submit(QuizAttemptDTO quizAttemptDTO, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return submitOnce(quizAttemptDTO, GENERATED_KEY_PREFIX + UUID.randomUUID(), null);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = scope(quizAttemptDTO.getStudentName(), idempotencyKey);
+        String fingerprint = fingerprint(quizAttemptDTO);
+        Submission submission = new Submission(fingerprint, new CompletableFuture<>());
+        Submission existing = submissions.asMap().putIfAbsent(scopedKey, submission);
+        if (existing != null) {
+            checkSameRequest(existing.fingerprint(), fingerprint);
+            return await(existing.result());
+        }
+        try {
+            QuizAttemptDTO result = findSubmitted(scopedKey, fingerprint)
+                    .orElseGet(() -> submitOnce(quizAttemptDTO, scopedKey, fingerprint));
+            submission.result().complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            submissions.asMap().remove(scopedKey, submission);
+            submission.result().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /** Rejects a key reused for a different request; attempts stored before fingerprints existed pass. */
+    static void checkSameRequest(String storedFingerprint, String requestFingerprint) {
+        if (storedFingerprint != null && !storedFingerprint.equals(requestFingerprint)) {
+            throw new UnprocessableEntityException("Idempotency-Key was already used for a different submission");
+        }
+    }
+
+    static String scope(String studentName, String idempotencyKey) {
+        return sha256(studentName + '\u0000' + idempotencyKey);
+    }
+
+    /** Digest of the quiz and the selections, independent of answer and option order. */
+    static String fingerprint(QuizAttemptDTO quizAttemptDTO) {
+        Map<Long, SortedSet<Long>> selections = new TreeMap<>();
+        if (quizAttemptDTO.getAnswers() != null) {
+            for (AnswerDTO answer : quizAttemptDTO.getAnswers()) {
+                SortedSet<Long> options = selections.computeIfAbsent(answer.getQuestionId(), id -> new TreeSet<>());
+                if (answer.getSelectedOptionId() != null) {
+                    options.add(answer.getSelectedOptionId());
+                }
+                if (answer.getSelectedOptionIds() != null) {
+                    answer.getSelectedOptionIds().stream().filter(Objects::nonNull).forEach(options::add);
+                }
+            }
+        }
+        return sha256(quizAttemptDTO.getQuizId() + ":" + selections);
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /** True for failures that mean the database cannot be reached, as opposed to rejecting the write. */
+    static boolean isDatabaseUnavailable(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLNonTransientConnectionException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Optional<QuizAttemptDTO> findSubmitted(String idempotencyKey, String fingerprint) {
+        Optional<ScoredAttempt> journaled = attemptJournal.findPending(idempotencyKey);
+        if (journaled.isPresent()) {
+            checkSameRequest(journaled.get().requestFingerprint(), fingerprint);
+            return journaled.map(quizAttemptService::convertToDTO);
+        }
+        try {
+            return quizAttemptService.findByIdempotencyKey(idempotencyKey, fingerprint);
+        } catch (RuntimeException ex) {
+            if (attemptJournal.isEnabled() && isDatabaseUnavailable(ex)) {
+                return Optional.empty();
+            }
+            throw ex;
+        }
+    }
+
+    private QuizAttemptDTO submitOnce(QuizAttemptDTO quizAttemptDTO, String idempotencyKey, String fingerprint) {
+        ScoredAttempt scored = quizAttemptService.score(quizAttemptDTO, idempotencyKey, fingerprint);
+        try {
+            return quizAttemptService.store(scored);
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance stored the same key first; its attempt is the result.
+            return quizAttemptService.findByIdempotencyKey(idempotencyKey, fingerprint).orElseThrow(() -> ex);
+        } catch (RuntimeException ex) {
+            if (!attemptJournal.isEnabled() || !isDatabaseUnavailable(ex)) {
+                throw ex;
+            }
+            try {
+                attemptJournal.append(scored);
+            } catch (RuntimeException journalFailure) {
+                ex.addSuppressed(journalFailure);
+                throw ex;
+            }
+            log.warn("Database unavailable; journaled attempt {} on quiz {}", scored.idempotencyKey(), scored.quizId());
+            return quizAttemptService.convertToDTO(scored);
+        }
+    }
+
+    private QuizAttemptDTO await(CompletableFuture<QuizAttemptDTO> submission) {
+        try {
+            return submission.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private record Submission(String fingerprint, CompletableFuture<QuizAttemptDTO> result) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.journal.AttemptJournal;
+import com.examly.springapp.journal.ScoredAttempt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores journaled attempts once the database is back, in the order they were accepted. Each
+ * attempt carries its idempotency key, so one already stored (before a crash moved the checkpoint,
+ * or by a retry that reached the database) is skipped. Replay stops at the first sign that the
+ * database is still unavailable and resumes from the checkpoint on the next run; an attempt the
+ * database rejects outright is set aside in the journal's rejected file instead of blocking the rest.
+ */
+@Service
+public class AttemptReplayService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptReplayService.class);
+
+    @Autowired
+    private AttemptJournal attemptJournal;
+
+    @Autowired
+    private QuizAttemptService quizAttemptService;
+
+    @Value("${quiz.journal.replay-batch:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${quiz.journal.replay-interval:5000}")
+    public void replay() throws IOException {
+        if (!attemptJournal.isEnabled() || !attemptJournal.hasPending()) {
+            return;
+        }
+        int replayed = 0;
+        try {
+            for (List<AttemptJournal.Entry> entries = attemptJournal.readPending(batchSize); !entries.isEmpty();
+                 entries = attemptJournal.readPending(batchSize)) {
+                replayed += replay(entries);
+            }
+        } catch (RuntimeException ex) {
+            if (!AttemptIdempotencyService.isDatabaseUnavailable(ex)) {
+                throw ex;
+            }
+            log.debug("Database still unavailable; journaled attempts stay pending");
+        } finally {
+            if (replayed > 0) {
+                log.info("Replayed {} journaled attempts", replayed);
+            }
+        }
+    }
+
+    /** Stores the entries in order, checkpointing however many got through. */
+    private int replay(List<AttemptJournal.Entry> entries) throws IOException {
+        List<AttemptJournal.Entry> done = new ArrayList<>(entries.size());
+        try {
+            for (AttemptJournal.Entry entry : entries) {
+                if (!store(entry.attempt())) {
+                    attemptJournal.reject(entry);
+                }
+                done.add(entry);
+            }
+        } finally {
+            attemptJournal.checkpoint(done);
+        }
+        return done.size();
+    }
+
+    /** False if the database refuses the attempt for good. */
+    private boolean store(ScoredAttempt attempt) {
+        if (quizAttemptService.findByIdempotencyKey(attempt.idempotencyKey()).isPresent()) {
+            return true;
+        }
+        try {
+            quizAttemptService.store(attempt);
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            if (quizAttemptService.findByIdempotencyKey(attempt.idempotencyKey()).isPresent()) {
+                return true;
+            }
+            log.error("Database rejected journaled attempt {} on quiz {}", attempt.idempotencyKey(), attempt.quizId(), ex);
+            return false;
+        }
+    }
+}
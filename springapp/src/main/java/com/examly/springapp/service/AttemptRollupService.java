@@ -0,0 +1,193 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.AttemptRollupDTO;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.model.AttemptRollup;
+import com.examly.springapp.model.DailyAttemptRollup;
+import com.examly.springapp.model.HourlyAttemptRollup;
+import com.examly.springapp.repository.AttemptRollupRepository;
+import com.examly.springapp.repository.DailyAttemptRollupRepository;
+import com.examly.springapp.repository.HourlyAttemptRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental attempt statistics. Each committed attempt bumps an in-memory per-minute bucket;
+ * a scheduled flush folds finished minutes into pending hourly and daily totals and adds them to
+ * the rollup tables (UTC buckets). Totals that fail to write stay pending for the next flush.
+ * Queries read the rollup tables only, never quiz_attempts.
+ */
+@Service
+public class AttemptRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptRollupService.class);
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final long DAY = Duration.ofDays(1).toMillis();
+
+    @Autowired
+    private HourlyAttemptRollupRepository hourlyRepository;
+
+    @Autowired
+    private DailyAttemptRollupRepository dailyRepository;
+
+    private final Map<BucketKey, MinuteBucket> minutes = new ConcurrentHashMap<>();
+    private final Map<BucketKey, Totals> pendingHours = new ConcurrentHashMap<>();
+    private final Map<BucketKey, Totals> pendingDays = new ConcurrentHashMap<>();
+
+    public void record(long quizId, int score, int totalQuestions, long completedAt) {
+        minutes.computeIfAbsent(new BucketKey(quizId, completedAt - completedAt % MINUTE), key -> new MinuteBucket())
+                .add(score, totalQuestions);
+    }
+
+    /** Corrects the score total of an attempt's buckets after it was re-scored; attempt counts stay as they are. */
+    public void adjustScore(long quizId, int scoreDelta, long completedAt) {
+        minutes.computeIfAbsent(new BucketKey(quizId, completedAt - completedAt % MINUTE), key -> new MinuteBucket())
+                .adjust(scoreDelta);
+    }
+
+    /**
+     * Flushes minutes that ended more than a minute ago; the grace minute keeps the flush from
+     * draining a bucket that a just-committed attempt is still adding to.
+     */
+    @Scheduled(fixedDelayString = "${quiz.rollups.flush-interval:60000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        flushBefore(now - now % MINUTE - MINUTE);
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        flushBefore(Long.MAX_VALUE);
+    }
+
+    public List<AttemptRollupDTO> getRollups(String granularity, Long quizId, Date from, Date to) {
+        AttemptRollupRepository<? extends AttemptRollup> repository;
+        Duration defaultRange;
+        if ("hour".equalsIgnoreCase(granularity)) {
+            repository = hourlyRepository;
+            defaultRange = Duration.ofDays(7);
+        } else if ("day".equalsIgnoreCase(granularity)) {
+            repository = dailyRepository;
+            defaultRange = Duration.ofDays(365);
+        } else {
+            throw new BadRequestException("Granularity must be 'hour' or 'day'");
+        }
+        Date end = to != null ? to : new Date();
+        Date start = from != null ? from : new Date(end.getTime() - defaultRange.toMillis());
+        if (start.after(end)) {
+            throw new BadRequestException("Rollup start must not be after its end");
+        }
+        List<? extends AttemptRollup> rollups = quizId != null
+                ? repository.findByQuizIdAndBucketStartBetweenOrderByBucketStart(quizId, start, end)
+                : repository.findByBucketStartBetweenOrderByBucketStartAscQuizIdAsc(start, end);
+        return rollups.stream().map(this::convertToDTO).collect(Collectors.toList());
+    }
+
+    private synchronized void flushBefore(long cutoff) {
+        for (Iterator<Map.Entry<BucketKey, MinuteBucket>> it = minutes.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<BucketKey, MinuteBucket> entry = it.next();
+            BucketKey minute = entry.getKey();
+            if (minute.start() >= cutoff) {
+                continue;
+            }
+            it.remove();
+            MinuteBucket bucket = entry.getValue();
+            pendingHours.computeIfAbsent(new BucketKey(minute.quizId(), minute.start() - minute.start() % HOUR),
+                    key -> new Totals()).add(bucket);
+            pendingDays.computeIfAbsent(new BucketKey(minute.quizId(), minute.start() - minute.start() % DAY),
+                    key -> new Totals()).add(bucket);
+        }
+        try {
+            write(pendingHours, hourlyRepository, HourlyAttemptRollup::new);
+            write(pendingDays, dailyRepository, DailyAttemptRollup::new);
+        } catch (DataAccessException ex) {
+            log.warn("Attempt rollup flush failed; {} hourly and {} daily buckets stay pending",
+                    pendingHours.size(), pendingDays.size(), ex);
+        }
+    }
+
+    private <T extends AttemptRollup> void write(Map<BucketKey, Totals> pending, AttemptRollupRepository<T> repository,
+                                                 Supplier<T> factory) {
+        for (Iterator<Map.Entry<BucketKey, Totals>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<BucketKey, Totals> entry = it.next();
+            BucketKey key = entry.getKey();
+            Totals totals = entry.getValue();
+            Date bucketStart = new Date(key.start());
+            // Score corrections alone never create a bucket: they belong to attempts that predate the rollups.
+            if (repository.increment(key.quizId(), bucketStart, totals.attempts, totals.scoreSum, totals.questionSum) == 0
+                    && totals.attempts > 0) {
+                T rollup = factory.get();
+                rollup.setQuizId(key.quizId());
+                rollup.setBucketStart(bucketStart);
+                rollup.setAttempts(totals.attempts);
+                rollup.setScoreSum(totals.scoreSum);
+                rollup.setQuestionSum(totals.questionSum);
+                try {
+                    repository.save(rollup);
+                } catch (DataIntegrityViolationException ex) {
+                    // Another instance created the bucket in the meantime.
+                    repository.increment(key.quizId(), bucketStart, totals.attempts, totals.scoreSum, totals.questionSum);
+                }
+            }
+            it.remove();
+        }
+    }
+
+    private AttemptRollupDTO convertToDTO(AttemptRollup rollup) {
+        AttemptRollupDTO dto = new AttemptRollupDTO();
+        dto.setQuizId(rollup.getQuizId());
+        dto.setBucketStart(rollup.getBucketStart());
+        dto.setAttempts(rollup.getAttempts());
+        dto.setAverageScore(rollup.getAttempts() > 0 ? (double) rollup.getScoreSum() / rollup.getAttempts() : 0);
+        dto.setAveragePercent(rollup.getQuestionSum() > 0 ? 100.0 * rollup.getScoreSum() / rollup.getQuestionSum() : 0);
+        return dto;
+    }
+
+    private record BucketKey(long quizId, long start) {
+    }
+
+    private static final class MinuteBucket {
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder scoreSum = new LongAdder();
+        private final LongAdder questionSum = new LongAdder();
+
+        void add(int score, int totalQuestions) {
+            attempts.increment();
+            scoreSum.add(score);
+            questionSum.add(totalQuestions);
+        }
+
+        void adjust(int scoreDelta) {
+            scoreSum.add(scoreDelta);
+        }
+    }
+
+    private static final class Totals {
+        private long attempts;
+        private long scoreSum;
+        private long questionSum;
+
+        void add(MinuteBucket bucket) {
+            attempts += bucket.attempts.sum();
+            scoreSum += bucket.scoreSum.sum();
+            questionSum += bucket.questionSum.sum();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.ContentChange;
+import com.examly.springapp.repository.ContentChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Records content writes for the sync feed. Called from the quiz and question write paths inside
+ * their transactions, so an entry exists if and only if the change committed. Options travel with
+ * their question and are recorded as a change to it.
+ */
+@Service
+public class ContentChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentChangeLog.class);
+
+    @Autowired
+    private ContentChangeRepository contentChangeRepository;
+
+    @Value("${quiz.sync.retention:P30D}")
+    private Duration retention;
+
+    public void quizChanged(Long quizId) {
+        record(ContentChange.QUIZ, quizId, quizId, false);
+    }
+
+    public void quizDeleted(Long quizId) {
+        record(ContentChange.QUIZ, quizId, quizId, true);
+    }
+
+    public void questionChanged(Long quizId, Long questionId) {
+        record(ContentChange.QUESTION, questionId, quizId, false);
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.sync.cleanup-interval:3600000}")
+    public void purge() {
+        int purged = contentChangeRepository.deleteOlderThan(new Date(System.currentTimeMillis() - retention.toMillis()));
+        if (purged > 0) {
+            log.debug("Purged {} content changes", purged);
+        }
+    }
+
+    private void record(String entity, Long entityId, Long quizId, boolean deleted) {
+        contentChangeRepository.save(ContentChange.builder()
+                .entity(entity)
+                .entityId(entityId)
+                .quizId(quizId)
+                .deleted(deleted)
+                .changedAt(new Date())
+                .build());
+    }
+}
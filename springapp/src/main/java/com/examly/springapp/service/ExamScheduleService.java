@@ -0,0 +1,177 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.cache.CacheInvalidationBus;
+import com.examly.springapp.cache.InvalidationEvent;
+import com.examly.springapp.cache.PaperCache;
+import com.examly.springapp.datasource.WorkloadContext;
+import com.examly.springapp.datasource.WorkloadPool;
+import com.examly.springapp.dto.ExamScheduleDTO;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ResourceNotFoundException;
+import com.examly.springapp.job.BackgroundJob;
+import com.examly.springapp.job.JobRegistry;
+import com.examly.springapp.model.ExamSchedule;
+import com.examly.springapp.model.Quiz;
+import com.examly.springapp.repository.ExamScheduleRepository;
+import com.examly.springapp.repository.QuizRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Exam windows for quizzes taken by a whole cohort at once. A lead time before a window opens,
+ * every node builds the quiz snapshot and a paper for each student on the schedule's roster into
+ * its own {@link PaperCache}, so the opening burst of paper requests and submissions never reaches
+ * the database. A schedule with only an expected roster size warms the snapshot alone: papers are
+ * per student, and there is no way to tell which students will come. Registered students outside
+ * the roster get their paper built and cached on first request.
+ *
+ * <p>Preparation is per node and kept in memory: a restarted node prepares again on its next
+ * tick, and a content change to the quiz makes every node prepare it again.
+ */
+@Service
+public class ExamScheduleService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamScheduleService.class);
+    private static final String EXAM_PREPARATION = "exam-preparation";
+
+    @Autowired
+    private ExamScheduleRepository examScheduleRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private PaperCache paperCache;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Value("${quiz.exams.lead-time:PT15M}")
+    private Duration leadTime;
+
+    // Schedule id -> quiz id, for schedules whose papers are built or being built on this node.
+    private final ConcurrentMap<Long, Long> prepared = new ConcurrentHashMap<>();
+
+    @Autowired
+    void listenForContentChanges(CacheInvalidationBus bus) {
+        bus.subscribe(event -> {
+            if (InvalidationEvent.QUIZ.equals(event.entity()) || InvalidationEvent.QUIZ_QUESTIONS.equals(event.entity())) {
+                prepared.values().removeIf(event.id()::equals);
+            }
+        });
+    }
+
+    @Transactional
+    public ExamScheduleDTO createSchedule(ExamScheduleDTO examScheduleDTO) {
+        Quiz quiz = quizRepository.findById(examScheduleDTO.getQuizId())
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+        if (!examScheduleDTO.getClosesAt().after(examScheduleDTO.getOpensAt())) {
+            throw new BadRequestException("Exam window must close after it opens");
+        }
+        if (!examScheduleDTO.getClosesAt().after(new Date())) {
+            throw new BadRequestException("Exam window has already closed");
+        }
+        ExamSchedule schedule = ExamSchedule.builder()
+                .quiz(quiz)
+                .opensAt(examScheduleDTO.getOpensAt())
+                .closesAt(examScheduleDTO.getClosesAt())
+                .expectedRoster(examScheduleDTO.getExpectedRoster())
+                .roster(examScheduleDTO.getRoster() != null ? new ArrayList<>(examScheduleDTO.getRoster()) : new ArrayList<>())
+                .createdAt(new Date())
+                .build();
+        return convertToDTO(examScheduleRepository.save(schedule));
+    }
+
+    public List<ExamScheduleDTO> getUpcomingSchedules() {
+        return examScheduleRepository.findNotClosed(new Date()).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /** Removes a quiz's schedules, roster included, so the quiz itself can be deleted. */
+    @Transactional
+    public void deleteSchedulesOfQuiz(Long quizId) {
+        List<ExamSchedule> schedules = examScheduleRepository.findByQuizId(quizId);
+        examScheduleRepository.deleteAll(schedules);
+        schedules.forEach(schedule -> prepared.remove(schedule.getId()));
+    }
+
+    @Transactional
+    public void deleteSchedule(Long id) {
+        if (!examScheduleRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Exam schedule not found");
+        }
+        examScheduleRepository.deleteById(id);
+        prepared.remove(id);
+    }
+
+    /** Hands every exam opening within the lead time that this node has not prepared to a background job. */
+    @Scheduled(fixedDelayString = "${quiz.exams.poll-interval:30000}")
+    public void prepareDueExams() {
+        Date now = new Date();
+        for (ExamSchedule schedule : examScheduleRepository.findOpeningBefore(
+                new Date(now.getTime() + leadTime.toMillis()), now)) {
+            Long quizId = schedule.getQuiz().getId();
+            if (prepared.putIfAbsent(schedule.getId(), quizId) != null) {
+                continue;
+            }
+            List<String> students = schedule.getRoster() != null ? List.copyOf(schedule.getRoster()) : List.of();
+            if (students.size() > paperCache.maxPapers()) {
+                log.warn("Exam {} expects {} students but the paper cache holds {}; raise quiz.papers.max-papers",
+                        schedule.getId(), students.size(), paperCache.maxPapers());
+            }
+            jobRegistry.submit(EXAM_PREPARATION, job -> WorkloadContext.run(WorkloadPool.REPORTING,
+                    () -> prepare(job, schedule.getId(), quizId, students)));
+        }
+    }
+
+    private void prepare(BackgroundJob job, Long scheduleId, Long quizId, List<String> students) {
+        long started = System.nanoTime();
+        job.setTotal(students.size());
+        try {
+            questionService.getQuestionsByQuizId(quizId);
+            for (String student : students) {
+                questionService.preparePaper(quizId, student);
+                job.addProcessed(1);
+            }
+        } catch (RuntimeException ex) {
+            prepared.remove(scheduleId);
+            throw ex;
+        }
+        if (students.isEmpty()) {
+            log.info("Prepared exam {} (quiz {}): no roster, snapshot only", scheduleId, quizId);
+        } else {
+            log.info("Prepared exam {} (quiz {}): {} papers in {} ms", scheduleId, quizId, students.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private ExamScheduleDTO convertToDTO(ExamSchedule schedule) {
+        ExamScheduleDTO dto = new ExamScheduleDTO();
+        dto.setId(schedule.getId());
+        dto.setQuizId(schedule.getQuiz().getId());
+        dto.setQuizTitle(schedule.getQuiz().getTitle());
+        dto.setOpensAt(schedule.getOpensAt());
+        dto.setClosesAt(schedule.getClosesAt());
+        dto.setExpectedRoster(schedule.getExpectedRoster());
+        dto.setRoster(schedule.getRoster() != null ? new ArrayList<>(schedule.getRoster()) : null);
+        dto.setPrepared(prepared.containsKey(schedule.getId()));
+        return dto;
+    }
+}
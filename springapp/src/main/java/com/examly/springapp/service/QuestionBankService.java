@@ -0,0 +1,168 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.cache.CacheInvalidationBus;
+import com.examly.springapp.cache.InvalidationEvent;
+import com.examly.springapp.cache.QuizSnapshot;
+import com.examly.springapp.cache.QuizSnapshotCache;
+import com.examly.springapp.cache.ShuffledPaper;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.model.DrawnPaper;
+import com.examly.springapp.repository.DrawnPaperRepository;
+import com.examly.springapp.repository.QuestionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Draws per-student question sets for quizzes defined as "N questions from bank tag T".
+ * Question ids are indexed per tag in memory (loaded on first use, appended on insert), so a draw
+ * is Floyd's sampling over the id array followed by one fetch-join query for the chosen questions.
+ * The index changes as questions are added and versions published, so each student's draw is
+ * recorded per quiz version on first serve and reused afterwards; grading always sees the
+ * questions the student was given, on every node and after the paper cache drops the paper.
+ */
+@Service
+public class QuestionBankService {
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private DrawnPaperRepository drawnPaperRepository;
+
+    private final ConcurrentMap<String, long[]> idsByTag = new ConcurrentHashMap<>();
+
+    @Autowired
+    void listenForRemoteChanges(CacheInvalidationBus bus) {
+        // Questions added on other nodes are not appended here; reload tags lazily instead.
+        bus.subscribe(event -> {
+            if (InvalidationEvent.QUIZ_QUESTIONS.equals(event.entity()) && !bus.nodeId().equals(event.origin())) {
+                idsByTag.clear();
+            }
+        });
+    }
+
+    /** The snapshot itself for fixed quizzes, or the student's drawn questions for bank quizzes. */
+    public QuizSnapshot resolve(QuizSnapshot snapshot, String studentKey) {
+        if (!snapshot.isDrawn()) {
+            return snapshot;
+        }
+        List<Long> ids = drawnIds(snapshot, studentKey);
+        List<QuizSnapshot.QuestionEntry> questions = questionRepository.findWithOptionsByIdIn(ids).stream()
+                .map(QuizSnapshotCache::toEntry)
+                .toList();
+        return snapshot.withQuestions(questions);
+    }
+
+    /** The student's recorded draw for this quiz version, drawn and recorded on first serve. */
+    private List<Long> drawnIds(QuizSnapshot snapshot, String studentKey) {
+        Optional<DrawnPaper> recorded = findDrawn(snapshot, studentKey);
+        if (recorded.isPresent()) {
+            return parseIds(recorded.get().getQuestionIds());
+        }
+        long[] drawn = draw(snapshot, studentKey);
+        Arrays.sort(drawn);
+        List<Long> ids = Arrays.stream(drawn).boxed().toList();
+        try {
+            drawnPaperRepository.save(DrawnPaper.builder()
+                    .quizId(snapshot.getQuizId())
+                    .quizVersion(snapshot.getVersion())
+                    .studentKey(studentKey)
+                    .questionIds(ids.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                    .createdAt(new Date())
+                    .build());
+            return ids;
+        } catch (DataIntegrityViolationException ex) {
+            // Served concurrently, possibly on another node; the draw recorded first wins.
+            return findDrawn(snapshot, studentKey)
+                    .map(paper -> parseIds(paper.getQuestionIds()))
+                    .orElseThrow(() -> ex);
+        }
+    }
+
+    private Optional<DrawnPaper> findDrawn(QuizSnapshot snapshot, String studentKey) {
+        return drawnPaperRepository.findByQuizIdAndQuizVersionAndStudentKey(snapshot.getQuizId(),
+                snapshot.getVersion(), studentKey);
+    }
+
+    private static List<Long> parseIds(String ids) {
+        return Arrays.stream(ids.split(",")).map(Long::valueOf).toList();
+    }
+
+    long[] draw(QuizSnapshot snapshot, String studentKey) {
+        long[] bank = idsByTag.computeIfAbsent(normalize(snapshot.getBankTag()), this::loadTag);
+        if (bank.length < snapshot.getDrawCount()) {
+            throw new BadRequestException("Question bank '" + snapshot.getBankTag() + "' has only "
+                    + bank.length + " questions");
+        }
+        SplittableRandom random = new SplittableRandom(
+                (snapshot.getQuizId() * 0x9E3779B97F4A7C15L) ^ snapshot.getVersion() ^ ShuffledPaper.studentHash(studentKey));
+        int n = snapshot.getDrawCount();
+        Set<Integer> chosen = new HashSet<>(n * 2);
+        for (int j = bank.length - n; j < bank.length; j++) {
+            int t = random.nextInt(j + 1);
+            chosen.add(chosen.contains(t) ? j : t);
+        }
+        long[] ids = new long[n];
+        int i = 0;
+        for (int index : chosen) {
+            ids[i++] = bank[index];
+        }
+        return ids;
+    }
+
+    public void questionAdded(Long questionId, Collection<String> tags) {
+        if (tags == null) {
+            return;
+        }
+        for (String tag : tags) {
+            idsByTag.computeIfPresent(normalize(tag), (key, ids) -> insert(ids, questionId));
+        }
+    }
+
+    /** Drops every loaded tag, e.g. after publishing swaps which quiz versions feed the bank. */
+    public void reset() {
+        idsByTag.clear();
+    }
+
+    public static Set<String> normalizeTags(Collection<String> tags) {
+        if (tags == null) {
+            return new HashSet<>();
+        }
+        return tags.stream().map(QuestionBankService::normalize).collect(Collectors.toSet());
+    }
+
+    private long[] loadTag(String tag) {
+        return questionRepository.findIdsByTag(tag).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) {
+            return ids;
+        }
+        int at = -pos - 1;
+        long[] grown = new long[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, at);
+        grown[at] = id;
+        System.arraycopy(ids, at, grown, at + 1, ids.length - at);
+        return grown;
+    }
+
+    private static String normalize(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,18 +1,38 @@
 package com.examly.springapp.service;
+import com.examly.springapp.archive.AttemptSegmentStore;
+import com.examly.springapp.cache.AfterCommit;
+import com.examly.springapp.cache.PaperCache;
+import com.examly.springapp.cache.QuizContentCache;
+import com.examly.springapp.cache.QuizSnapshot;
+import com.examly.springapp.cache.QuizSnapshotCache;
+import com.examly.springapp.cache.ShuffledPaper;
+import com.examly.springapp.cache.StudentIdentityFilter;
 import com.examly.springapp.dto.OptionDTO;
 import com.examly.springapp.dto.QuestionDTO;
 import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ConflictException;
 import com.examly.springapp.exception.ResourceNotFoundException;
 import com.examly.springapp.model.Option;
 import com.examly.springapp.model.Question;
 import com.examly.springapp.model.Quiz;
+import com.examly.springapp.model.QuizStatus;
 import com.examly.springapp.repository.OptionRepository;
 import com.examly.springapp.repository.QuestionRepository;
+import com.examly.springapp.repository.QuizAttemptRepository;
 import com.examly.springapp.repository.QuizRepository;
+import com.examly.springapp.repository.StudentRepository;
+import com.examly.springapp.scoring.AnswerKey;
+import com.examly.springapp.scoring.ScoringMode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 @Service
@@ -23,20 +43,41 @@ public class QuestionService {
     private QuestionRepository questionRepository;
     @Autowired
     private OptionRepository optionRepository;
+    @Autowired
+    private QuizContentCache quizContentCache;
+    @Autowired
+    private QuizSnapshotCache quizSnapshotCache;
+    @Autowired
+    private QuestionBankService questionBankService;
+    @Autowired
+    private ContentChangeLog contentChangeLog;
+    @Autowired
+    private PaperCache paperCache;
+    @Autowired
+    private StudentIdentityFilter studentIdentityFilter;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+    @Autowired
+    private AttemptSegmentStore attemptSegmentStore;
     @Transactional
     public QuestionDTO addQuestion(Long quizId, QuestionDTO questionDTO) {
         Quiz quiz = quizRepository.findById(quizId)
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+        requireEditable(quiz);
         long correctOptionsCount = questionDTO.getOptions().stream()
                 .filter(OptionDTO::getIsCorrect)
                 .count();
-        if (correctOptionsCount != 1) {
-            throw new BadRequestException("Each question must have exactly one correct option");
+        if (questionDTO.getOptions().size() > AnswerKey.MAX_OPTIONS) {
+            throw new BadRequestException("A question cannot have more than " + AnswerKey.MAX_OPTIONS + " options");
         }
+        requireCorrectCount(questionDTO.getQuestionType(), correctOptionsCount);
         Question question = new Question();
         question.setQuiz(quiz);
         question.setQuestionText(questionDTO.getQuestionText());
         question.setQuestionType(questionDTO.getQuestionType());
+        question.setTags(QuestionBankService.normalizeTags(questionDTO.getTags()));
         Question savedQuestion = questionRepository.save(question);
         List<Option> options = questionDTO.getOptions().stream()
                 .map(optionDTO -> {
@@ -48,20 +89,224 @@ public class QuestionService {
                 })
                 .collect(Collectors.toList());
         optionRepository.saveAll(options);
+        quizContentCache.questionsChanged(quizId);
+        quizContentCache.optionsChanged(savedQuestion.getId());
+        contentChangeLog.questionChanged(quizId, savedQuestion.getId());
+        if (quiz.isAttemptable()) {
+            // Drafts only join the question bank once published.
+            AfterCommit.run(() -> questionBankService.questionAdded(savedQuestion.getId(), savedQuestion.getTags()));
+        }
         return convertToDTO(savedQuestion, options);
     }
+    /**
+     * Everything an answer-key correction of the question touches: the question itself, its
+     * copies in the other versions of the quiz's lineage (copy-on-write gave them the same text,
+     * type and options; copies a draft has since edited are separate questions), the quizzes
+     * holding them, and the bank quizzes that can draw any of them.
+     */
+    @Transactional
+    public AnswerKeyScope answerKeyScope(Long quizId, Long questionId) {
+        Question question = questionRepository.findById(questionId)
+                .filter(q -> q.getQuiz().getId().equals(quizId))
+                .orElseThrow(() -> new ResourceNotFoundException("Question not found"));
+        List<Long> lineageQuizIds = quizRepository.findLineage(question.getQuiz().lineage()).stream()
+                .map(Quiz::getId)
+                .toList();
+        List<Question> copies = questionRepository.findWithOptionsByQuizIdIn(lineageQuizIds).stream()
+                .filter(q -> q.getId().equals(questionId) || isCopy(q, question))
+                .toList();
+        Set<String> tags = copies.stream()
+                .filter(q -> q.getTags() != null)
+                .flatMap(q -> q.getTags().stream())
+                .collect(Collectors.toSet());
+        List<Long> bankQuizIds = tags.isEmpty() ? List.of() : quizRepository.findIdsByBankTagIn(tags);
+        return new AnswerKeyScope(copies.stream().map(Question::getId).toList(),
+                copies.stream().map(q -> q.getQuiz().getId()).distinct().toList(), bankQuizIds);
+    }
+    /**
+     * Fixes which options of a question are correct, and of its copies within the scope by option
+     * position. Unlike every other edit this is allowed on published versions, since attempts
+     * already taken must be re-scored against the corrected key. Bank quizzes lose their cached
+     * papers, which carry the drawn questions' keys.
+     */
+    @Transactional
+    public void correctAnswerKey(Long questionId, List<Long> correctOptionIds, AnswerKeyScope scope) {
+        Question question = questionRepository.findById(questionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Question not found"));
+        List<Option> options = byId(question.getOptions());
+        Set<Long> correct = new HashSet<>(correctOptionIds);
+        if (!options.stream().map(Option::getId).collect(Collectors.toSet()).containsAll(correct)) {
+            throw new BadRequestException("Correct options must be options of the question");
+        }
+        requireCorrectCount(question.getQuestionType(), correct.size());
+        List<Question> corrected = questionRepository.findWithOptionsByIdIn(scope.questionIds()).stream()
+                .filter(q -> q.getId().equals(questionId) || isCopy(q, question))
+                .toList();
+        for (Question q : corrected) {
+            List<Option> copyOptions = byId(q.getOptions());
+            for (int i = 0; i < copyOptions.size(); i++) {
+                copyOptions.get(i).setIsCorrect(correct.contains(options.get(i).getId()));
+            }
+            optionRepository.saveAll(copyOptions);
+            Long quizId = q.getQuiz().getId();
+            quizContentCache.questionsChanged(quizId);
+            quizContentCache.optionsChanged(q.getId());
+            contentChangeLog.questionChanged(quizId, q.getId());
+        }
+        scope.bankQuizIds().forEach(quizContentCache::questionsChanged);
+    }
+    /** The questions, quizzes and bank quizzes an answer-key correction applies to. */
+    public record AnswerKeyScope(List<Long> questionIds, List<Long> quizIds, List<Long> bankQuizIds) {
+    }
+    private static boolean isCopy(Question candidate, Question question) {
+        return Objects.equals(candidate.getQuestionText(), question.getQuestionText())
+                && Objects.equals(candidate.getQuestionType(), question.getQuestionType())
+                && byId(candidate.getOptions()).stream().map(Option::getOptionText).toList()
+                        .equals(byId(question.getOptions()).stream().map(Option::getOptionText).toList());
+    }
+    /** Options in creation order, which copy-on-write preserves. */
+    private static List<Option> byId(List<Option> options) {
+        return options.stream().sorted(Comparator.comparing(Option::getId)).toList();
+    }
+    /** Archived attempts count too: their scores still depend on the content. */
+    void requireEditable(Quiz quiz) {
+        boolean attempted = quiz.getStatus() == QuizStatus.PUBLISHED
+                && (quizAttemptRepository.existsByQuizId(quiz.getId()) || attemptSegmentStore.containsQuiz(quiz.getId()));
+        if (!quiz.isEditable(attempted)) {
+            throw new ConflictException("Quiz versions that have been attempted cannot be changed; create a draft");
+        }
+    }
+    private static void requireCorrectCount(String questionType, long correctOptionsCount) {
+        if (ScoringMode.of(questionType).allowsSeveralCorrect()) {
+            if (correctOptionsCount < 1) {
+                throw new BadRequestException("Each question must have at least one correct option");
+            }
+        } else if (correctOptionsCount != 1) {
+            throw new BadRequestException("Each question must have exactly one correct option");
+        }
+    }
+    /** Copy-on-write: gives a new draft its own rows for every question and option of the source version. */
+    @Transactional
+    public void copyQuestions(Long fromQuizId, Quiz draft) {
+        List<Question> copies = questionRepository.findWithOptionsByQuizId(fromQuizId).stream()
+                .map(source -> {
+                    Question copy = new Question();
+                    copy.setQuiz(draft);
+                    copy.setQuestionText(source.getQuestionText());
+                    copy.setQuestionType(source.getQuestionType());
+                    copy.setTags(source.getTags() != null ? new HashSet<>(source.getTags()) : new HashSet<>());
+                    copy.setOptions(source.getOptions().stream()
+                            .map(option -> {
+                                Option optionCopy = new Option();
+                                optionCopy.setQuestion(copy);
+                                optionCopy.setOptionText(option.getOptionText());
+                                optionCopy.setIsCorrect(option.getIsCorrect());
+                                return optionCopy;
+                            })
+                            .collect(Collectors.toList()));
+                    return copy;
+                })
+                .collect(Collectors.toList());
+        questionRepository.saveAll(copies);
+        copies.forEach(copy -> contentChangeLog.questionChanged(draft.getId(), copy.getId()));
+    }
 public List<QuestionDTO> getQuestionsByQuizId(Long quizId) {
-Quiz quiz = quizRepository.findById(quizId)
-.orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
-return questionRepository.findByQuizId(quizId).stream()
-.map(question -> convertToDTO(question, question.getOptions()))
-.collect(Collectors.toList());
+QuizSnapshot snapshot = quizSnapshotCache.get(quizId);
+List<QuestionDTO> questions = new ArrayList<>(snapshot.questionCount());
+for (int i = 0; i < snapshot.questionCount(); i++) {
+QuizSnapshot.QuestionEntry question = snapshot.question(i);
+List<OptionDTO> options = new ArrayList<>(question.optionCount());
+for (int j = 0; j < question.optionCount(); j++) {
+options.add(convertToDTO(question.option(j), true));
 }
-private QuestionDTO convertToDTO(Question question, List<Option> options) {
+questions.add(convertToDTO(question, options));
+}
+return questions;
+}
+    public List<QuestionDTO> getPaper(Long quizId, String studentKey) {
+        ShuffledPaper paper = paper(quizId, studentKey);
+        List<QuestionDTO> questions = new ArrayList<>(paper.size());
+        for (int position = 0; position < paper.size(); position++) {
+            int q = paper.canonicalQuestion(position);
+            QuizSnapshot.QuestionEntry question = paper.getSnapshot().question(q);
+            List<OptionDTO> options = new ArrayList<>(question.optionCount());
+            for (int j = 0; j < question.optionCount(); j++) {
+                options.add(convertToDTO(question.option(paper.canonicalOption(q, j)), false));
+            }
+            questions.add(convertToDTO(question, options));
+        }
+        return questions;
+    }
+    /**
+     * The student's paper, from the paper cache; bank quizzes draw the student's questions on a miss.
+     * The student key is whatever the client sends, so a miss is only cached for registered
+     * students; anyone else gets a paper built for the request. The registration lookup only
+     * decides the caching, so it never fails a request. Drafts and retired versions have no papers.
+     */
+    public ShuffledPaper paper(Long quizId, String studentKey) {
+        requireStudentKey(studentKey);
+        ShuffledPaper paper = paperCache.getIfPresent(quizId, studentKey);
+        if (paper == null) {
+            ShuffledPaper built = buildPaper(quizId, studentKey);
+            paper = isRegistered(studentKey) ? paperCache.get(quizId, studentKey, () -> built) : built;
+        }
+        requireAttemptable(paper.getSnapshot());
+        return paper;
+    }
+    /** Caches the paper of a student expected to sit an exam, registered or not. */
+    public ShuffledPaper preparePaper(Long quizId, String studentKey) {
+        requireStudentKey(studentKey);
+        ShuffledPaper paper = paperCache.get(quizId, studentKey, () -> buildPaper(quizId, studentKey));
+        requireAttemptable(paper.getSnapshot());
+        return paper;
+    }
+    private static void requireStudentKey(String studentKey) {
+        if (studentKey == null || studentKey.isBlank()) {
+            throw new BadRequestException("A student is required for a paper");
+        }
+    }
+    private ShuffledPaper buildPaper(Long quizId, String studentKey) {
+        QuizSnapshot snapshot = requireAttemptable(quizSnapshotCache.get(quizId));
+        return ShuffledPaper.of(questionBankService.resolve(snapshot, studentKey), studentKey);
+    }
+    private boolean isRegistered(String studentKey) {
+        if (studentKey == null || !studentIdentityFilter.mightHaveUsername(studentKey)) {
+            return false;
+        }
+        try {
+            return studentRepository.existsByUsername(studentKey);
+        } catch (DataAccessException ex) {
+            // Scoring must keep working while the database is down; the paper is just not cached.
+            return false;
+        }
+    }
+    private static QuizSnapshot requireAttemptable(QuizSnapshot snapshot) {
+        if (!snapshot.isAttemptable()) {
+            throw new ConflictException("Quiz is not published");
+        }
+        return snapshot;
+    }
+    private QuestionDTO convertToDTO(QuizSnapshot.QuestionEntry question, List<OptionDTO> options) {
+        QuestionDTO questionDTO = new QuestionDTO();
+        questionDTO.setId(question.id());
+        questionDTO.setQuestionText(question.text());
+        questionDTO.setQuestionType(question.type());
+        questionDTO.setOptions(options);
+        return questionDTO;
+    }
+    private OptionDTO convertToDTO(QuizSnapshot.OptionEntry option, boolean includeAnswer) {
+        OptionDTO optionDTO = new OptionDTO();
+        optionDTO.setId(option.id());
+        optionDTO.setOptionText(option.text());
+        optionDTO.setIsCorrect(includeAnswer ? option.correct() : null);
+        return optionDTO;
+    }
+QuestionDTO convertToDTO(Question question, List<Option> options) {
 QuestionDTO questionDTO = new QuestionDTO();
 questionDTO.setId(question.getId());
 questionDTO.setQuestionText(question.getQuestionText());
 questionDTO.setQuestionType(question.getQuestionType());
+questionDTO.setTags(question.getTags() != null ? new ArrayList<>(question.getTags()) : null);
 List<OptionDTO> optionDTOs = options.stream()
 .map(option -> {
 OptionDTO optionDTO = new OptionDTO();
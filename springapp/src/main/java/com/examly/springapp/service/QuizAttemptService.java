@@ -1,21 +1,33 @@
 package com.examly.springapp.service;
+import com.examly.springapp.archive.ArchivedAttempt;
+import com.examly.springapp.archive.AttemptSegmentStore;
+import com.examly.springapp.cache.AfterCommit;
+import com.examly.springapp.cache.QuizSnapshot;
+import com.examly.springapp.datasource.WorkloadPool;
 import com.examly.springapp.dto.AnswerDTO;
 import com.examly.springapp.dto.QuizAttemptDTO;
 import com.examly.springapp.exception.ResourceNotFoundException;
-import com.examly.springapp.model.Option;
-import com.examly.springapp.model.Question;
+import com.examly.springapp.journal.ScoredAttempt;
+import com.examly.springapp.model.AttemptAnswer;
 import com.examly.springapp.model.Quiz;
 import com.examly.springapp.model.QuizAttempt;
-import com.examly.springapp.repository.OptionRepository;
-import com.examly.springapp.repository.QuestionRepository;
+import com.examly.springapp.model.Student;
+import com.examly.springapp.repository.AttemptRow;
 import com.examly.springapp.repository.QuizAttemptRepository;
 import com.examly.springapp.repository.QuizRepository;
+import com.examly.springapp.repository.StudentAttemptRow;
+import com.examly.springapp.repository.StudentRepository;
+import com.examly.springapp.scoring.ScoringEngine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 @Service
 public class QuizAttemptService {
@@ -24,49 +36,180 @@ public class QuizAttemptService {
     @Autowired
     private QuizAttemptRepository quizAttemptRepository;
     @Autowired
-    private QuestionRepository questionRepository;
+    private StudentRepository studentRepository;
     @Autowired
-    private OptionRepository optionRepository;
+    private AttemptSegmentStore attemptSegmentStore;
+    @Autowired
+    private QuestionService questionService;
+    @Autowired
+    private ScoringEngine scoringEngine;
+    @Autowired
+    private AttemptRollupService attemptRollupService;
     @Transactional
     public QuizAttemptDTO submitQuizAttempt(QuizAttemptDTO quizAttemptDTO) {
-        Quiz quiz = quizRepository.findById(quizAttemptDTO.getQuizId())
-                .orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
-        int score = 0;
-        int totalQuestions = 0;
-        List<Question> questions = questionRepository.findByQuizId(quiz.getId());
-        totalQuestions = questions.size();
-        Map<Long, Question> questionMap = questions.stream()
-                .collect(Collectors.toMap(Question::getId, q -> q));
-        for (AnswerDTO answer : quizAttemptDTO.getAnswers()) {
-            Question question = questionMap.get(answer.getQuestionId());
-            if (question != null) {
-                Option correctOption = optionRepository.findByQuestionAndIsCorrect(question, true);
-                if (correctOption != null && correctOption.getId().equals(answer.getSelectedOptionId())) {
-                    score++;
-                }
-            }
-        }
-        
+        return submitQuizAttempt(quizAttemptDTO, null);
+    }
+    @Transactional
+    public QuizAttemptDTO submitQuizAttempt(QuizAttemptDTO quizAttemptDTO, String idempotencyKey) {
+        return store(score(quizAttemptDTO, idempotencyKey, null));
+    }
+    /** Grades a submission against the student's paper; needs no database while the paper is cached. */
+    public ScoredAttempt score(QuizAttemptDTO quizAttemptDTO, String idempotencyKey, String requestFingerprint) {
+        QuizSnapshot snapshot = questionService.paper(quizAttemptDTO.getQuizId(), quizAttemptDTO.getStudentName())
+                .getSnapshot();
+        // Answers carry stable ids, so any shuffled paper maps straight back to canonical positions.
+        double points = scoringEngine.grade(snapshot, quizAttemptDTO.getAnswers());
+        return new ScoredAttempt(idempotencyKey, requestFingerprint, snapshot.getQuizId(), snapshot.getTitle(),
+                quizAttemptDTO.getStudentName(), (int) Math.round(points), points, snapshot.questionCount(),
+                System.currentTimeMillis(),
+                toAttemptAnswers(snapshot, quizAttemptDTO.getAnswers()));
+    }
+@Transactional
+public QuizAttemptDTO store(ScoredAttempt scored) {
 QuizAttempt quizAttempt = new QuizAttempt();
-quizAttempt.setQuiz(quiz);
-quizAttempt.setStudentName(quizAttemptDTO.getStudentName());
-quizAttempt.setScore(score);
-quizAttempt.setTotalQuestions(totalQuestions);
-quizAttempt.setCompletedAt(new Date());
+quizAttempt.setQuiz(quizRepository.getReferenceById(scored.quizId()));
+quizAttempt.setStudentName(scored.studentName());
+quizAttempt.setStudent(studentRepository.findByUsername(scored.studentName()).orElse(null));
+quizAttempt.setScore(scored.score());
+quizAttempt.setPoints(scored.points());
+quizAttempt.setTotalQuestions(scored.totalQuestions());
+quizAttempt.setCompletedAt(new Date(scored.completedAt()));
+quizAttempt.setIdempotencyKey(scored.idempotencyKey());
+quizAttempt.setRequestFingerprint(scored.requestFingerprint());
+quizAttempt.setAnswers(new ArrayList<>(scored.answers()));
 QuizAttempt savedAttempt = quizAttemptRepository.save(quizAttempt);
+AfterCommit.run(() -> attemptRollupService.record(scored.quizId(), scored.score(), scored.totalQuestions(),
+scored.completedAt()));
 return convertToDTO(savedAttempt);
 }
+private static List<AttemptAnswer> toAttemptAnswers(QuizSnapshot snapshot, List<AnswerDTO> answers) {
+List<AttemptAnswer> picks = new ArrayList<>();
+for (AnswerDTO answer : answers) {
+int q = snapshot.indexOf(answer.getQuestionId());
+if (q < 0) {
+continue;
+}
+QuizSnapshot.QuestionEntry question = snapshot.question(q);
+List<Long> optionIds = new ArrayList<>();
+if (answer.getSelectedOptionId() != null) {
+optionIds.add(answer.getSelectedOptionId());
+}
+if (answer.getSelectedOptionIds() != null) {
+optionIds.addAll(answer.getSelectedOptionIds());
+}
+for (Long optionId : new LinkedHashSet<>(optionIds)) {
+int o = optionId != null ? question.optionIndex(optionId) : -1;
+if (o >= 0) {
+picks.add(new AttemptAnswer(question.id(), optionId, question.option(o).correct()));
+}
+}
+}
+return picks;
+}
+@Transactional
+public Optional<QuizAttemptDTO> findByIdempotencyKey(String idempotencyKey) {
+return quizAttemptRepository.findByIdempotencyKey(idempotencyKey).map(this::convertToDTO);
+}
+/** The attempt stored under the key; 422 if it was submitted with a different request. */
+@Transactional
+public Optional<QuizAttemptDTO> findByIdempotencyKey(String idempotencyKey, String requestFingerprint) {
+return quizAttemptRepository.findByIdempotencyKey(idempotencyKey).map(attempt -> {
+AttemptIdempotencyService.checkSameRequest(attempt.getRequestFingerprint(), requestFingerprint);
+return convertToDTO(attempt);
+});
+}
+@WorkloadPool(WorkloadPool.REPORTING)
 public List<QuizAttemptDTO> getQuizAttemptsByQuizId(Long quizId) {
-Quiz quiz = quizRepository.findById(quizId)
-.orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
-return quizAttemptRepository.findByQuizId(quizId).stream()
+if (!quizRepository.existsById(quizId)) {
+throw new ResourceNotFoundException("Quiz not found");
+}
+List<QuizAttemptDTO> attempts = attemptSegmentStore.findByQuizId(quizId).stream()
+.map(this::convertToDTO)
+.collect(Collectors.toList());
+quizAttemptRepository.findRowsByQuizId(quizId).stream()
 .map(this::convertToDTO)
+.forEach(attempts::add);
+return attempts;
+}
+public List<QuizAttemptDTO> getStudentHistory(Long studentId) {
+Student student = studentRepository.findById(studentId)
+.orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+List<StudentAttemptRow> rows = quizAttemptRepository.findHistoryByStudentId(studentId);
+Map<Long, String> titles = quizRepository.findAllById(rows.stream().map(StudentAttemptRow::getQuizId).distinct().toList())
+.stream()
+.collect(Collectors.toMap(Quiz::getId, Quiz::getTitle));
+List<QuizAttemptDTO> history = rows.stream()
+.map(row -> {
+QuizAttemptDTO dto = new QuizAttemptDTO();
+dto.setId(row.getId());
+dto.setQuizId(row.getQuizId());
+dto.setQuizTitle(titles.get(row.getQuizId()));
+dto.setStudentName(student.getUsername());
+dto.setStudentId(String.valueOf(student.getId()));
+dto.setScore(row.getScore());
+dto.setPoints(row.getPoints());
+dto.setTotalQuestions(row.getTotalQuestions());
+dto.setCompletedAt(row.getCompletedAt());
+dto.setTimeTaken("N/A");
+return dto;
+})
 .collect(Collectors.toList());
+attemptSegmentStore.findByStudentId(studentId).stream()
+.map(this::convertToDTO)
+.forEach(history::add);
+history.sort(Comparator.comparing(QuizAttemptDTO::getCompletedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+return history;
 }
+@WorkloadPool(WorkloadPool.REPORTING)
 public List<QuizAttemptDTO> getAllQuizAttempts() {
-return quizAttemptRepository.findAll().stream()
+List<QuizAttemptDTO> attempts = attemptSegmentStore.findAll(archived -> true).stream()
 .map(this::convertToDTO)
 .collect(Collectors.toList());
+quizAttemptRepository.findAllRows().stream()
+.map(this::convertToDTO)
+.forEach(attempts::add);
+return attempts;
+}
+private QuizAttemptDTO convertToDTO(ArchivedAttempt archived) {
+QuizAttemptDTO dto = new QuizAttemptDTO();
+dto.setId(archived.id());
+dto.setQuizId(archived.quizId());
+dto.setStudentName(archived.studentName());
+dto.setScore(archived.score());
+dto.setPoints(archived.points());
+dto.setTotalQuestions(archived.totalQuestions());
+dto.setCompletedAt(new Date(archived.completedAt()));
+dto.setQuizTitle(archived.quizTitle());
+dto.setStudentId(archived.studentId() != null ? String.valueOf(archived.studentId()) : null);
+dto.setTimeTaken("N/A");
+return dto;
+}
+/** Response for an attempt accepted into the journal; it has no id until it is stored. */
+public QuizAttemptDTO convertToDTO(ScoredAttempt scored) {
+QuizAttemptDTO dto = new QuizAttemptDTO();
+dto.setQuizId(scored.quizId());
+dto.setStudentName(scored.studentName());
+dto.setScore(scored.score());
+dto.setPoints(scored.points());
+dto.setTotalQuestions(scored.totalQuestions());
+dto.setCompletedAt(new Date(scored.completedAt()));
+dto.setQuizTitle(scored.quizTitle());
+dto.setTimeTaken("N/A");
+return dto;
+}
+private QuizAttemptDTO convertToDTO(AttemptRow row) {
+QuizAttemptDTO dto = new QuizAttemptDTO();
+dto.setId(row.getId());
+dto.setQuizId(row.getQuizId());
+dto.setStudentName(row.getStudentName());
+dto.setScore(row.getScore());
+dto.setPoints(row.getPoints());
+dto.setTotalQuestions(row.getTotalQuestions());
+dto.setCompletedAt(row.getCompletedAt());
+dto.setQuizTitle(row.getQuizTitle());
+dto.setStudentId(row.getStudentId() != null ? String.valueOf(row.getStudentId()) : null);
+dto.setTimeTaken("N/A");
+return dto;
 }
 private QuizAttemptDTO convertToDTO(QuizAttempt quizAttempt) {
 QuizAttemptDTO dto = new QuizAttemptDTO();
@@ -74,10 +217,11 @@ dto.setId(quizAttempt.getId());
 dto.setQuizId(quizAttempt.getQuiz().getId());
 dto.setStudentName(quizAttempt.getStudentName());
 dto.setScore(quizAttempt.getScore());
+dto.setPoints(quizAttempt.getPoints());
 dto.setTotalQuestions(quizAttempt.getTotalQuestions());
 dto.setCompletedAt(quizAttempt.getCompletedAt());
 dto.setQuizTitle(quizAttempt.getQuiz().getTitle());
-dto.setStudentId(String.valueOf(quizAttempt.getId()));
+dto.setStudentId(quizAttempt.getStudent() != null ? String.valueOf(quizAttempt.getStudent().getId()) : null);
 dto.setTimeTaken("N/A");
 return dto;
 }
@@ -1,29 +1,62 @@
 package com.examly.springapp.service;
+import com.examly.springapp.archive.AttemptSegmentStore;
+import com.examly.springapp.cache.AfterCommit;
+import com.examly.springapp.cache.QuizContentCache;
+import com.examly.springapp.datasource.WorkloadPool;
 import com.examly.springapp.dto.QuizDTO;
+import com.examly.springapp.dto.QuizPatchDTO;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ConflictException;
 import com.examly.springapp.exception.ResourceNotFoundException;
 import com.examly.springapp.model.Quiz;
+import com.examly.springapp.model.QuizStatus;
+import com.examly.springapp.repository.DrawnPaperRepository;
 import com.examly.springapp.repository.QuizRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import jakarta.transaction.Transactional;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 @Service
 public class QuizService {
     @Autowired
     private QuizRepository quizRepository;
+    @Autowired
+    private QuizContentCache quizContentCache;
+    @Autowired
+    private QuestionService questionService;
+    @Autowired
+    private QuestionBankService questionBankService;
+    @Autowired
+    private ContentChangeLog contentChangeLog;
+    @Autowired
+    private DrawnPaperRepository drawnPaperRepository;
+    @Autowired
+    private ExamScheduleService examScheduleService;
+    @Autowired
+    private AttemptSegmentStore attemptSegmentStore;
+    @Transactional
     public QuizDTO createQuiz(QuizDTO quizDTO) {
         Quiz quiz = new Quiz();
         quiz.setTitle(quizDTO.getTitle());
         quiz.setDescription(quizDTO.getDescription());
         quiz.setTimeLimit(quizDTO.getTimeLimit());
-        quiz.setCreatedAt(new Date());
-        quiz.setUpdatedAt(new Date());
+        applyBankDraw(quiz, quizDTO);
+        // Attemptable right away and editable until the first attempt; later changes go through a draft.
+        Date now = new Date();
+        quiz.setStatus(QuizStatus.PUBLISHED);
+        quiz.setRevision(1);
+        quiz.setPublishedAt(now);
+        quiz.setCreatedAt(now);
+        quiz.setUpdatedAt(now);
         Quiz savedQuiz = quizRepository.save(quiz);
+        contentChangeLog.quizChanged(savedQuiz.getId());
         return convertToDTO(savedQuiz);
     }
     public List<QuizDTO> getAllQuizzes() {
-        return quizRepository.findAll().stream()
+        return quizRepository.findByStatus(QuizStatus.PUBLISHED).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -32,30 +65,157 @@ public class QuizService {
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
         return convertToDTO(quiz);
     }
+@Transactional
 public QuizDTO updateQuiz(Long id, QuizDTO quizDTO) {
 Quiz quiz = quizRepository.findById(id)
 .orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+requireEditable(quiz);
+if (quizDTO.getVersion() != null && !quizDTO.getVersion().equals(quiz.getVersion())) {
+throw new ConflictException("Quiz was modified by someone else");
+}
 quiz.setTitle(quizDTO.getTitle());
 quiz.setDescription(quizDTO.getDescription());
 quiz.setTimeLimit(quizDTO.getTimeLimit());
+applyBankDraw(quiz, quizDTO);
 quiz.setUpdatedAt(new Date());
-Quiz updatedQuiz = quizRepository.save(quiz);
+Quiz updatedQuiz = quizRepository.saveAndFlush(quiz);
+quizContentCache.quizChanged(id, updatedQuiz.getVersion());
+contentChangeLog.quizChanged(id);
 return convertToDTO(updatedQuiz);
 }
+    @Transactional
+    public long patchQuiz(Long id, QuizPatchDTO patch) {
+        if (attemptSegmentStore.containsQuiz(id)) {
+            // The update only sees live attempts.
+            requireEditable(quizRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Quiz not found")));
+        }
+        int updated = quizRepository.patch(id, patch.getVersion(), patch.getTitle(), patch.getDescription(),
+                patch.getTimeLimit(), new Date());
+        if (updated == 0) {
+            Quiz quiz = quizRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+            requireEditable(quiz);
+            throw new ConflictException("Quiz was modified by someone else");
+        }
+        long newVersion = patch.getVersion() + 1;
+        quizContentCache.quizChanged(id, newVersion);
+        contentChangeLog.quizChanged(id);
+        return newVersion;
+    }
+    /**
+     * Starts editing a quiz by copying the given version, questions and options included, into a
+     * new draft of the same lineage. Returns the existing draft if the lineage already has one.
+     */
+    @Transactional
+    public QuizDTO createDraft(Long id) {
+        Quiz source = quizRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+        Long lineage = source.lineage();
+        List<Quiz> drafts = quizRepository.findLineageByStatus(lineage, QuizStatus.DRAFT);
+        if (!drafts.isEmpty()) {
+            return convertToDTO(drafts.get(0));
+        }
+        Date now = new Date();
+        Quiz draft = Quiz.builder()
+                .title(source.getTitle())
+                .description(source.getDescription())
+                .timeLimit(source.getTimeLimit())
+                .bankTag(source.getBankTag())
+                .drawCount(source.getDrawCount())
+                .status(QuizStatus.DRAFT)
+                .lineageId(lineage)
+                .revision(quizRepository.findMaxRevision(lineage) + 1)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        Quiz savedDraft = quizRepository.save(draft);
+        contentChangeLog.quizChanged(savedDraft.getId());
+        questionService.copyQuestions(source.getId(), savedDraft);
+        return convertToDTO(savedDraft);
+    }
+    /**
+     * Freezes a draft. The lineage's previously published version is retired; attempts keep
+     * pointing at whichever version they were taken on.
+     */
+    @Transactional
+    public QuizDTO publishQuiz(Long id) {
+        Quiz quiz = quizRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+        if (quiz.getStatus() == QuizStatus.PUBLISHED) {
+            return convertToDTO(quiz);
+        }
+        if (quiz.getStatus() == QuizStatus.RETIRED) {
+            throw new ConflictException("Retired quiz versions cannot be published again");
+        }
+        Date now = new Date();
+        for (Quiz previous : quizRepository.findLineage(quiz.lineage())) {
+            if (previous.getId().equals(id) || !previous.isAttemptable()) {
+                continue;
+            }
+            previous.setStatus(QuizStatus.RETIRED);
+            previous.setUpdatedAt(now);
+            // Its cached snapshot and papers would otherwise keep accepting attempts.
+            quizContentCache.quizChanged(previous.getId(), null);
+            contentChangeLog.quizChanged(previous.getId());
+        }
+        quiz.setStatus(QuizStatus.PUBLISHED);
+        quiz.setPublishedAt(now);
+        quiz.setUpdatedAt(now);
+        Quiz published = quizRepository.saveAndFlush(quiz);
+        contentChangeLog.quizChanged(id);
+        // The bank only draws from published versions, so every node reloads its tags.
+        quizContentCache.questionsChanged(id);
+        AfterCommit.run(questionBankService::reset);
+        return convertToDTO(published);
+    }
+    public List<QuizDTO> getVersions(Long id) {
+        Quiz quiz = quizRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+        return quizRepository.findLineage(quiz.lineage()).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+@Transactional
+@WorkloadPool(WorkloadPool.BULK)
 public void deleteQuiz(Long id) {
-if (!quizRepository.existsById(id)) {
-throw new ResourceNotFoundException("Quiz not found");
+Quiz quiz = quizRepository.findById(id)
+.orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+if (quiz.getStatus() == QuizStatus.RETIRED) {
+throw new ConflictException("Retired quiz versions cannot be deleted");
 }
+requireEditable(quiz);
+drawnPaperRepository.deleteByQuizId(id);
+examScheduleService.deleteSchedulesOfQuiz(id);
 quizRepository.deleteById(id);
+quizContentCache.quizChanged(id, null);
+contentChangeLog.quizDeleted(id);
+}
+private void requireEditable(Quiz quiz) {
+questionService.requireEditable(quiz);
+}
+private void applyBankDraw(Quiz quiz, QuizDTO quizDTO) {
+if ((quizDTO.getBankTag() == null) != (quizDTO.getDrawCount() == null)) {
+throw new BadRequestException("Bank tag and draw count must be set together");
+}
+quiz.setBankTag(quizDTO.getBankTag() != null ? quizDTO.getBankTag().trim().toLowerCase(Locale.ROOT) : null);
+quiz.setDrawCount(quizDTO.getDrawCount());
 }
-private QuizDTO convertToDTO(Quiz quiz) {
+QuizDTO convertToDTO(Quiz quiz) {
 QuizDTO quizDTO = new QuizDTO();
 quizDTO.setId(quiz.getId());
 quizDTO.setTitle(quiz.getTitle());
 quizDTO.setDescription(quiz.getDescription());
 quizDTO.setTimeLimit(quiz.getTimeLimit());
+quizDTO.setBankTag(quiz.getBankTag());
+quizDTO.setDrawCount(quiz.getDrawCount());
 quizDTO.setCreatedAt(quiz.getCreatedAt());
 quizDTO.setUpdatedAt(quiz.getUpdatedAt());
+quizDTO.setVersion(quiz.getVersion());
+quizDTO.setStatus(quiz.getStatus() != null ? quiz.getStatus().name() : null);
+quizDTO.setLineageId(quiz.lineage());
+quizDTO.setRevision(quiz.getRevision());
+quizDTO.setPublishedAt(quiz.getPublishedAt());
 return quizDTO;
 }
 }
\ No newline at end of file
@@ -0,0 +1,176 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.archive.ArchivedAttempt;
+import com.examly.springapp.archive.AttemptSegmentStore;
+import com.examly.springapp.datasource.WorkloadContext;
+import com.examly.springapp.datasource.WorkloadPool;
+import com.examly.springapp.dto.JobStatusDTO;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ConflictException;
+import com.examly.springapp.job.BackgroundJob;
+import com.examly.springapp.job.JobRegistry;
+import com.examly.springapp.job.JobState;
+import com.examly.springapp.repository.AttemptRow;
+import com.examly.springapp.repository.QuizAttemptRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Builds grade reports as background jobs. Attempts are read in keyset-paged chunks of flat
+ * rows and streamed to a CSV file, so memory use is bounded by the chunk size regardless of
+ * how many attempts the term contains. Archived attempts in the range come first, streamed from
+ * their segments one at a time; an attempt is either archived or in the table, never both.
+ */
+@Service
+public class ReportService {
+
+    private static final String GRADE_REPORT = "grade-report";
+    private static final Date END_OF_TIME = new Date(253402300799000L); // 9999-12-31T23:59:59Z
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private AttemptSegmentStore attemptSegmentStore;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Value("${quiz.reports.dir:${java.io.tmpdir}/quiz-reports}")
+    private String reportsDir;
+
+    @Value("${quiz.reports.chunk-size:1000}")
+    private int chunkSize;
+
+    public JobStatusDTO submitGradeReport(Date from, Date to) {
+        Date start = from != null ? from : new Date(0);
+        Date end = to != null ? to : END_OF_TIME;
+        if (start.after(end)) {
+            throw new BadRequestException("Report start must not be after its end");
+        }
+        BackgroundJob job = jobRegistry.submit(GRADE_REPORT, 
+                j -> WorkloadContext.run(WorkloadPool.REPORTING, () -> writeGradeReport(j, start, end)));
+        return toStatus(job);
+    }
+
+    public JobStatusDTO getStatus(String jobId) {
+        return toStatus(jobRegistry.get(jobId));
+    }
+
+    public Resource getResult(String jobId) {
+        BackgroundJob job = jobRegistry.get(jobId);
+        if (job.getState() != JobState.COMPLETED || job.getResultFile() == null) {
+            throw new ConflictException("Report is not ready");
+        }
+        return new FileSystemResource(job.getResultFile());
+    }
+
+    private void writeGradeReport(BackgroundJob job, Date from, Date to) {
+        job.setTotal(quizAttemptRepository.countByCompletedAtBetween(from, to));
+        try {
+            Path dir = Files.createDirectories(Paths.get(reportsDir));
+            Path file = dir.resolve(GRADE_REPORT + "-" + job.getId() + ".csv");
+            // Set before writing, so a failed run's partial file is deleted with the job.
+            job.setResultFile(file);
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("attemptId,quizId,quizTitle,studentName,score,points,totalQuestions,completedAt");
+                writer.newLine();
+                long[] archived = new long[1];
+                attemptSegmentStore.forEachCompletedBetween(from.getTime(), to.getTime(), attempt -> {
+                    try {
+                        writeRow(writer, attempt);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    archived[0]++;
+                });
+                job.setTotal(job.getTotal() + archived[0]);
+                job.addProcessed(archived[0]);
+                long afterId = 0;
+                List<AttemptRow> chunk;
+                do {
+                    chunk = quizAttemptRepository.findRowsAfter(afterId, from, to, PageRequest.ofSize(chunkSize));
+                    for (AttemptRow row : chunk) {
+                        writeRow(writer, row);
+                    }
+                    if (!chunk.isEmpty()) {
+                        afterId = chunk.get(chunk.size() - 1).getId();
+                    }
+                    job.addProcessed(chunk.size());
+                } while (chunk.size() == chunkSize);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write grade report", ex);
+        }
+    }
+
+    private static void writeRow(BufferedWriter writer, AttemptRow row) throws IOException {
+        writeRow(writer, row.getId(), row.getQuizId(), row.getQuizTitle(), row.getStudentName(), row.getScore(),
+                row.getPoints(), row.getTotalQuestions(),
+                row.getCompletedAt() != null ? row.getCompletedAt().toInstant().toString() : "");
+    }
+
+    private static void writeRow(BufferedWriter writer, ArchivedAttempt attempt) throws IOException {
+        writeRow(writer, attempt.id(), attempt.quizId(), attempt.quizTitle(), attempt.studentName(), attempt.score(),
+                attempt.points(), attempt.totalQuestions(),
+                attempt.completedAt() != 0 ? Instant.ofEpochMilli(attempt.completedAt()).toString() : "");
+    }
+
+    private static void writeRow(BufferedWriter writer, Long id, Long quizId, String quizTitle, String studentName,
+                                 Integer score, Double points, Integer totalQuestions, String completedAt) throws IOException {
+        writer.write(String.valueOf(id));
+        writer.write(',');
+        writer.write(String.valueOf(quizId));
+        writer.write(',');
+        writer.write(csv(quizTitle));
+        writer.write(',');
+        writer.write(csv(studentName));
+        writer.write(',');
+        writer.write(String.valueOf(score));
+        writer.write(',');
+        writer.write(points != null ? String.valueOf(points) : "");
+        writer.write(',');
+        writer.write(String.valueOf(totalQuestions));
+        writer.write(',');
+        writer.write(completedAt);
+        writer.newLine();
+    }
+
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    static JobStatusDTO toStatus(BackgroundJob job) {
+        JobStatusDTO dto = new JobStatusDTO();
+        dto.setId(job.getId());
+        dto.setType(job.getType());
+        dto.setState(job.getState().name());
+        dto.setProcessed(job.getProcessed());
+        dto.setTotal(job.getTotal() >= 0 ? job.getTotal() : null);
+        dto.setCreatedAt(Date.from(job.getCreatedAt()));
+        dto.setFinishedAt(job.getFinishedAt() != null ? Date.from(job.getFinishedAt()) : null);
+        dto.setError(job.getError());
+        return dto;
+    }
+}
@@ -0,0 +1,408 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.archive.AttemptSegmentStore;
+import com.examly.springapp.cache.QuizContentCache;
+import com.examly.springapp.cache.QuizSnapshot;
+import com.examly.springapp.cache.QuizSnapshotCache;
+import com.examly.springapp.datasource.WorkloadContext;
+import com.examly.springapp.datasource.WorkloadPool;
+import com.examly.springapp.dto.JobStatusDTO;
+import com.examly.springapp.exception.ConflictException;
+import com.examly.springapp.exception.ResourceNotFoundException;
+import com.examly.springapp.job.BackgroundJob;
+import com.examly.springapp.job.JobLeases;
+import com.examly.springapp.job.JobRegistry;
+import com.examly.springapp.model.Question;
+import com.examly.springapp.model.Quiz;
+import com.examly.springapp.repository.QuestionRepository;
+import com.examly.springapp.repository.QuizRepository;
+import com.examly.springapp.scoring.AnswerKey;
+import com.examly.springapp.scoring.ScoringEngine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Recomputes the scores of a quiz's attempts from their stored answers, e.g. after a wrong
+ * {@code isCorrect} flag was fixed with {@link #correctAnswerKey}. The answer key is compiled once
+ * from the current options and shared by all workers; attempts are split into id ranges that are
+ * read, scored and written back in parallel with plain JDBC on the bulk pool, so live traffic keeps
+ * its own connections. Only attempts whose score changes, and answers whose correct flag changes,
+ * are written, in batches. A score is only overwritten if it still holds the value it was read
+ * with, and only rows actually written move the rollups.
+ *
+ * <p>One rescore per quiz runs at a time across all nodes, guarded by a job lease; a second
+ * request gets 409. An answer-key correction reserves every quiz it reaches and re-scores them in
+ * turn in one job. Attempts without stored answers (archived, or submitted before answers were
+ * kept) keep their score. Re-running the job is harmless: it converges on the same scores.
+ */
+@Service
+public class RescoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(RescoreService.class);
+    private static final String RESCORE = "rescore";
+    private static final int IN_LIST_SIZE = 1000;
+
+    private static final String ATTEMPT_IDS = "select id from quiz_attempts where quiz_id = ? and id > ? order by id";
+    private static final String ANSWERED_QUESTION_IDS = "select distinct aa.question_id from attempt_answers aa"
+            + " join quiz_attempts qa on qa.id = aa.attempt_id where qa.quiz_id = ?";
+    private static final String CHUNK_ANSWERS = "select qa.id, qa.score, qa.points, qa.completed_at, aa.question_id,"
+            + " aa.option_id, aa.correct from quiz_attempts qa join attempt_answers aa on aa.attempt_id = qa.id"
+            + " where qa.quiz_id = ? and qa.id between ? and ? order by qa.id";
+    private static final String ANSWERING_QUIZ_IDS = "select distinct qa.quiz_id from attempt_answers aa"
+            + " join quiz_attempts qa on qa.id = aa.attempt_id where aa.question_id in (?)";
+    private static final String UPDATE_SCORE = "update quiz_attempts set score = ?, points = ? where id = ? and score = ?";
+    private static final String UPDATE_CORRECT = "update attempt_answers set correct = ?"
+            + " where attempt_id = ? and question_id = ? and option_id = ?";
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuizContentCache quizContentCache;
+
+    @Autowired
+    private ScoringEngine scoringEngine;
+
+    @Autowired
+    private AttemptRollupService attemptRollupService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private AttemptSegmentStore attemptSegmentStore;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private JobLeases jobLeases;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${quiz.rescore.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${quiz.rescore.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${quiz.rescore.lease:PT1H}")
+    private Duration lease;
+
+    private final ForkJoinPool pool;
+    // Quizzes with a rescore running on this node; the lease covers the other nodes.
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public RescoreService(@Value("${quiz.rescore.parallelism:2}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public JobStatusDTO submitRescore(Long quizId) {
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+        reserve(quizId);
+        return start(List.of(quiz));
+    }
+
+    /**
+     * Fixes which options of a question are correct, in place and on any version including
+     * published ones, together with its copies in the other versions of the lineage, and re-scores
+     * every quiz whose attempts answered one of them against the corrected key. Archived attempts
+     * keep no answers and cannot be re-scored, so a correction that would reach a quiz with
+     * archived attempts, including a bank quiz that may have drawn the question, is rejected.
+     */
+    public JobStatusDTO correctAnswerKey(Long quizId, Long questionId, List<Long> correctOptionIds) {
+        QuestionService.AnswerKeyScope scope = questionService.answerKeyScope(quizId, questionId);
+        Set<Long> quizIds = new TreeSet<>(scope.quizIds());
+        quizIds.addAll(answeredBy(scope.questionIds()));
+        for (Long id : concat(quizIds, scope.bankQuizIds())) {
+            if (attemptSegmentStore.containsQuiz(id)) {
+                throw new ConflictException("Quiz " + id + " has archived attempts, which cannot be re-scored;"
+                        + " the answer key cannot be corrected");
+            }
+        }
+        List<Quiz> quizzes = quizRepository.findAllById(quizIds);
+        // Reserved first, so a rescore already running cannot finish against the old key unnoticed.
+        List<Long> reserved = new ArrayList<>();
+        try {
+            for (Long id : quizIds) {
+                reserve(id);
+                reserved.add(id);
+            }
+            questionService.correctAnswerKey(questionId, correctOptionIds, scope);
+        } catch (RuntimeException ex) {
+            reserved.forEach(this::release);
+            throw ex;
+        }
+        return start(quizzes);
+    }
+
+    private List<Long> answeredBy(List<Long> questionIds) {
+        List<Long> quizIds = new ArrayList<>();
+        for (int from = 0; from < questionIds.size(); from += IN_LIST_SIZE) {
+            List<Long> ids = questionIds.subList(from, Math.min(questionIds.size(), from + IN_LIST_SIZE));
+            quizIds.addAll(jdbcTemplate.queryForList(ANSWERING_QUIZ_IDS.replace("?",
+                    String.join(",", Collections.nCopies(ids.size(), "?"))), Long.class, ids.toArray()));
+        }
+        return quizIds;
+    }
+
+    private static List<Long> concat(Collection<Long> first, Collection<Long> second) {
+        List<Long> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+
+    private void reserve(Long quizId) {
+        if (!running.add(quizId)) {
+            throw new ConflictException("A rescore of this quiz is already running");
+        }
+        if (!jobLeases.tryAcquire(leaseName(quizId), lease)) {
+            running.remove(quizId);
+            throw new ConflictException("A rescore of this quiz is already running");
+        }
+    }
+
+    private void release(Long quizId) {
+        try {
+            jobLeases.release(leaseName(quizId));
+        } finally {
+            running.remove(quizId);
+        }
+    }
+
+    private JobStatusDTO start(List<Quiz> quizzes) {
+        try {
+            BackgroundJob job = jobRegistry.submit(RESCORE, j -> WorkloadContext.run(WorkloadPool.BULK, () -> {
+                try {
+                    for (Quiz quiz : quizzes) {
+                        rescore(j, quiz);
+                    }
+                } finally {
+                    quizzes.forEach(quiz -> release(quiz.getId()));
+                }
+            }));
+            return ReportService.toStatus(job);
+        } catch (RuntimeException ex) {
+            quizzes.forEach(quiz -> release(quiz.getId()));
+            throw ex;
+        }
+    }
+
+    private static String leaseName(Long quizId) {
+        return RESCORE + "-" + quizId;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void rescore(BackgroundJob job, Quiz quiz) {
+        long started = System.nanoTime();
+        long quizId = quiz.getId();
+        // New submissions pick up the corrected key from here on.
+        quizContentCache.questionsChanged(quizId);
+        QuizSnapshot key = loadKey(quiz);
+        Totals totals = new Totals();
+        long[] ids = attemptIdsAfter(quizId, 0);
+        job.setTotal(job.getTotal() + ids.length);
+        while (ids.length > 0) {
+            long[] batch = ids;
+            pool.submit(() -> IntStream.range(0, (batch.length + chunkSize - 1) / chunkSize).parallel()
+                    .forEach(chunk -> {
+                        int from = chunk * chunkSize;
+                        int to = Math.min(batch.length, from + chunkSize) - 1;
+                        WorkloadContext.run(WorkloadPool.BULK,
+                                () -> rescoreChunk(quizId, key, batch[from], batch[to], totals));
+                        job.addProcessed(to - from + 1);
+                    })).join();
+            if (!jobLeases.tryAcquire(leaseName(quizId), lease)) {
+                throw new IllegalStateException("Lost the rescore lease for quiz " + quizId);
+            }
+            // One more round for attempts committed while this one ran, possibly against the old key.
+            ids = attemptIdsAfter(quizId, ids[ids.length - 1]);
+            job.setTotal(job.getTotal() + ids.length);
+        }
+        log.info("Re-scored quiz {}: {} attempts with answers, {} scores and {} answer flags changed in {} ms",
+                quizId, totals.attempts.get(), totals.scores.get(), totals.flags.get(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /** Every question the quiz's attempts answered plus the quiz's own, with their current options. */
+    private QuizSnapshot loadKey(Quiz quiz) {
+        List<Question> questions = new ArrayList<>(questionRepository.findWithOptionsByQuizId(quiz.getId()));
+        long[] own = questions.stream().mapToLong(Question::getId).sorted().toArray();
+        List<Long> others = jdbcTemplate.queryForList(ANSWERED_QUESTION_IDS, Long.class, quiz.getId()).stream()
+                .filter(id -> Arrays.binarySearch(own, id) < 0)
+                .toList();
+        for (int from = 0; from < others.size(); from += IN_LIST_SIZE) {
+            questions.addAll(questionRepository.findWithOptionsByIdIn(
+                    others.subList(from, Math.min(others.size(), from + IN_LIST_SIZE))));
+        }
+        return new QuizSnapshot(quiz.getId(), 0, quiz.getTitle(),
+                questions.stream().map(QuizSnapshotCache::toEntry).toList());
+    }
+
+    private long[] attemptIdsAfter(long quizId, long afterId) {
+        return jdbcTemplate.queryForList(ATTEMPT_IDS, Long.class, quizId, afterId).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    private void rescoreChunk(long quizId, QuizSnapshot key, long fromId, long toId, Totals totals) {
+        ChunkScorer scorer = new ChunkScorer(key);
+        jdbcTemplate.query(CHUNK_ANSWERS, scorer::accept, quizId, fromId, toId);
+        scorer.finishAttempt();
+        List<Rescored> updated = new ArrayList<>(scorer.scores.size());
+        if (!scorer.scores.isEmpty()) {
+            int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SCORE, scorer.scores, batchSize,
+                    (statement, row) -> {
+                        statement.setInt(1, row.score());
+                        statement.setDouble(2, row.points());
+                        statement.setLong(3, row.attemptId());
+                        statement.setInt(4, row.oldScore());
+                    });
+            int row = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    if (count > 0) {
+                        updated.add(scorer.scores.get(row));
+                    }
+                    row++;
+                }
+            }
+        }
+        if (!scorer.flags.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_CORRECT, scorer.flags, batchSize,
+                    (statement, row) -> {
+                        statement.setBoolean(1, row[0] != 0);
+                        statement.setLong(2, row[1]);
+                        statement.setLong(3, row[2]);
+                        statement.setLong(4, row[3]);
+                    });
+        }
+        // Only once the new scores are written, so the rollups never run ahead of the table.
+        // Rollups keep whole-point sums, so only a change of the rounded score moves them.
+        for (Rescored rescored : updated) {
+            if (rescored.score() != rescored.oldScore() && rescored.completedAt() > 0) {
+                attemptRollupService.adjustScore(quizId, rescored.score() - rescored.oldScore(), rescored.completedAt());
+            }
+        }
+        totals.attempts.addAndGet(scorer.attempts);
+        totals.scores.addAndGet(updated.size());
+        totals.flags.addAndGet(scorer.flags.size());
+    }
+
+    /**
+     * Folds the answer rows of a chunk, ordered by attempt, into one selection mask per question and
+     * scores each attempt when its last row has been read. The masks array is reused across attempts.
+     */
+    private final class ChunkScorer {
+        private final QuizSnapshot key;
+        private final AnswerKey answerKey;
+        private final long[] masks;
+        private final int[] touched;
+        private int touchedCount;
+        private long attemptId = -1;
+        private int oldScore;
+        private double oldPoints;
+        private long completedAt;
+        private int attempts;
+        final List<Rescored> scores = new ArrayList<>();
+        final List<long[]> flags = new ArrayList<>();
+
+        ChunkScorer(QuizSnapshot key) {
+            this.key = key;
+            this.answerKey = key.answerKey();
+            this.masks = new long[key.questionCount()];
+            this.touched = new int[key.questionCount()];
+        }
+
+        void accept(ResultSet row) throws SQLException {
+            long id = row.getLong(1);
+            if (id != attemptId) {
+                finishAttempt();
+                attemptId = id;
+                oldScore = row.getInt(2);
+                oldPoints = row.getDouble(3);
+                if (row.wasNull()) {
+                    oldPoints = Double.NaN;
+                }
+                completedAt = row.getTimestamp(4) != null ? row.getTimestamp(4).getTime() : 0;
+            }
+            long questionId = row.getLong(5);
+            long optionId = row.getLong(6);
+            int q = key.indexOf(questionId);
+            if (q < 0) {
+                return;
+            }
+            QuizSnapshot.QuestionEntry question = key.question(q);
+            int o = question.optionIndex(optionId);
+            if (o < 0 || o >= AnswerKey.MAX_OPTIONS) {
+                return;
+            }
+            if (masks[q] == 0) {
+                touched[touchedCount++] = q;
+            }
+            masks[q] |= 1L << o;
+            boolean correct = question.option(o).correct();
+            if (correct != row.getBoolean(7)) {
+                flags.add(new long[] {correct ? 1 : 0, id, questionId, optionId});
+            }
+        }
+
+        void finishAttempt() {
+            if (attemptId < 0) {
+                return;
+            }
+            double total = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                int q = touched[i];
+                total += scoringEngine.score(answerKey, q, masks[q]);
+                masks[q] = 0;
+            }
+            touchedCount = 0;
+            double points = Math.max(0, total);
+            int score = (int) Math.round(points);
+            if (score != oldScore || points != oldPoints) {
+                scores.add(new Rescored(attemptId, oldScore, score, points, completedAt));
+            }
+            attempts++;
+            attemptId = -1;
+        }
+    }
+
+    private record Rescored(long attemptId, int oldScore, int score, double points, long completedAt) {
+    }
+
+    private static final class Totals {
+        final AtomicLong attempts = new AtomicLong();
+        final AtomicLong scores = new AtomicLong();
+        final AtomicLong flags = new AtomicLong();
+    }
+}
@@ -1,8 +1,10 @@
 package com.examly.springapp.service;
 
+import com.examly.springapp.cache.StudentIdentityFilter;
 import com.examly.springapp.model.Student;
 import com.examly.springapp.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.util.List;
@@ -17,15 +19,36 @@ public class StudentService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private StudentIdentityFilter studentIdentityFilter;
+
     public Student registerStudent(Student student) {
-        if (studentRepository.existsByUsername(student.getUsername())) {
+        checkNotTaken(student, true);
+        student.setPassword(passwordEncoder.encode(student.getPassword()));
+        Student saved;
+        try {
+            saved = studentRepository.save(student);
+        } catch (DataIntegrityViolationException ex) {
+            // Another node got there first, and this node's filter may not know yet; ask the table
+            // directly to report which value clashed.
+            checkNotTaken(student, false);
+            throw ex;
+        }
+        studentIdentityFilter.added(saved.getUsername(), saved.getEmail());
+        return saved;
+    }
+
+    /** With {@code useFilter}, values the identity filter has never seen skip the existence query. */
+    private void checkNotTaken(Student student, boolean useFilter) {
+        if ((!useFilter || studentIdentityFilter.mightHaveUsername(student.getUsername()))
+                && studentRepository.existsByUsername(student.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
-        if (student.getEmail() != null && studentRepository.existsByEmail(student.getEmail())) {
+        if (student.getEmail() != null
+                && (!useFilter || studentIdentityFilter.mightHaveEmail(student.getEmail()))
+                && studentRepository.existsByEmail(student.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
-        student.setPassword(passwordEncoder.encode(student.getPassword()));
-        return studentRepository.save(student);
     }
 
     public Student loginStudent(String username, String password) {
@@ -52,8 +75,15 @@ public class StudentService {
         
         for (Student student : students) {
             if (student != null && student.getUsername() != null && !student.getUsername().trim().isEmpty()) {
-                if (!studentRepository.existsByUsername(student.getUsername())) {
-                    savedStudents.add(studentRepository.save(student));
+                if (!studentIdentityFilter.mightHaveUsername(student.getUsername())
+                        || !studentRepository.existsByUsername(student.getUsername())) {
+                    try {
+                        Student saved = studentRepository.save(student);
+                        studentIdentityFilter.added(saved.getUsername(), saved.getEmail());
+                        savedStudents.add(saved);
+                    } catch (DataIntegrityViolationException ex) {
+                        // Already present (inserted elsewhere since the last filter rebuild); skip like any existing row.
+                    }
                 }
             }
         }
@@ -0,0 +1,130 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.QuestionDTO;
+import com.examly.springapp.dto.SyncDTO;
+import com.examly.springapp.model.ContentChange;
+import com.examly.springapp.model.Question;
+import com.examly.springapp.model.Quiz;
+import com.examly.springapp.model.QuizStatus;
+import com.examly.springapp.repository.ContentChangeRepository;
+import com.examly.springapp.repository.QuestionRepository;
+import com.examly.springapp.repository.QuizRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Change feed for clients that cache quiz content. A client starts without a token and receives
+ * every live quiz with its questions; afterwards it sends back the token it was given and receives
+ * only the quizzes and questions written since, the latter with all of their options.
+ *
+ * <p>Identity values can become visible out of order when transactions commit concurrently: a
+ * later entry may be readable while an earlier one is still uncommitted. The token therefore never
+ * passes an entry written within the last settle window, which is assumed to outlast any content
+ * transaction. Newer entries are still sent, and sent again with the next response until they have
+ * settled; applying an entry twice is harmless. A token older than the retained log gets a full
+ * response instead.
+ */
+@Service
+public class SyncService {
+
+    @Autowired
+    private ContentChangeRepository contentChangeRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Value("${quiz.sync.page-size:500}")
+    private int pageSize;
+
+    @Value("${quiz.sync.settle-window:PT10S}")
+    private Duration settleWindow;
+
+    @Transactional
+    public SyncDTO getChanges(Long since) {
+        if (since == null || since <= 0 || since > contentChangeRepository.findMaxId()
+                || since < contentChangeRepository.findMinId() - 1) {
+            return fullSync();
+        }
+        long settled = settledMaxId();
+        List<ContentChange> changes = contentChangeRepository.findAfter(since, PageRequest.ofSize(pageSize));
+        long last = changes.isEmpty() ? since : changes.get(changes.size() - 1).getId();
+        long token = Math.max(since, Math.min(last, settled));
+
+        Set<Long> deletedQuizIds = changes.stream()
+                .filter(change -> ContentChange.QUIZ.equals(change.getEntity()) && change.isDeleted())
+                .map(ContentChange::getQuizId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Long> quizIds = new LinkedHashSet<>();
+        Set<Long> questionIds = new LinkedHashSet<>();
+        for (ContentChange change : changes) {
+            if (deletedQuizIds.contains(change.getQuizId()) || change.isDeleted()) {
+                continue;
+            }
+            (ContentChange.QUIZ.equals(change.getEntity()) ? quizIds : questionIds).add(change.getEntityId());
+        }
+
+        List<Quiz> quizzes = quizIds.isEmpty() ? List.of() : quizRepository.findAllById(quizIds);
+        // A quiz deleted after this page is reported as deleted already rather than skipped.
+        if (quizzes.size() < quizIds.size()) {
+            quizIds.removeAll(quizzes.stream().map(Quiz::getId).toList());
+            deletedQuizIds.addAll(quizIds);
+        }
+        List<Question> questions = questionIds.isEmpty() ? List.of() : questionRepository.findWithOptionsByIdIn(questionIds);
+
+        SyncDTO sync = new SyncDTO();
+        sync.setToken(token);
+        // The rest of a full page that has not settled yet is only worth asking for later.
+        sync.setMore(changes.size() == pageSize && token == last);
+        sync.setQuizzes(quizzes.stream().map(quizService::convertToDTO).collect(Collectors.toList()));
+        sync.setQuestions(questions.stream().map(this::convertToDTO).collect(Collectors.toList()));
+        sync.setDeletedQuizIds(new ArrayList<>(deletedQuizIds));
+        return sync;
+    }
+
+    private SyncDTO fullSync() {
+        // Read before the content; anything after it is sent again on the next call.
+        long token = settledMaxId();
+        List<Quiz> quizzes = quizRepository.findByStatus(QuizStatus.PUBLISHED);
+        List<Question> questions = quizzes.isEmpty() ? List.of()
+                : questionRepository.findWithOptionsByQuizIdIn(quizzes.stream().map(Quiz::getId).toList());
+
+        SyncDTO sync = new SyncDTO();
+        sync.setToken(token);
+        sync.setFull(true);
+        sync.setQuizzes(quizzes.stream().map(quizService::convertToDTO).collect(Collectors.toList()));
+        sync.setQuestions(questions.stream().map(this::convertToDTO).collect(Collectors.toList()));
+        sync.setDeletedQuizIds(List.of());
+        return sync;
+    }
+
+    /** Highest id below which every entry has committed, assuming none takes longer than the settle window. */
+    private long settledMaxId() {
+        return contentChangeRepository.findMaxIdBefore(new Date(System.currentTimeMillis() - settleWindow.toMillis()));
+    }
+
+    private QuestionDTO convertToDTO(Question question) {
+        QuestionDTO questionDTO = questionService.convertToDTO(question, question.getOptions());
+        questionDTO.setQuizId(question.getQuiz().getId());
+        return questionDTO;
+    }
+}
@@ -0,0 +1,130 @@
+package com.examly.springapp.similarity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * MinHash signatures with LSH banding over sets of long features. Two sets with Jaccard
+ * similarity {@code s} share at least one band with probability {@code 1 - (1 - s^rows)^bands},
+ * so similar pairs are found by bucketing bands instead of comparing every pair. Candidates still
+ * need an exact {@link #jaccard} check.
+ */
+public final class MinHashLsh {
+
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+
+    public MinHashLsh(int bands, int rows, long seed) {
+        this.bands = bands;
+        this.rows = rows;
+        SplittableRandom random = new SplittableRandom(seed);
+        this.seeds = new long[bands * rows];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    /** Feature for one picked option of one question. */
+    public static long feature(long questionId, long optionId) {
+        return mix(questionId * 0x9E3779B97F4A7C15L + optionId);
+    }
+
+    public long[] signature(long[] features) {
+        long[] signature = new long[seeds.length];
+        for (int i = 0; i < seeds.length; i++) {
+            long min = Long.MAX_VALUE;
+            for (long feature : features) {
+                long hash = mix(feature ^ seeds[i]);
+                if (hash < min) {
+                    min = hash;
+                }
+            }
+            signature[i] = min;
+        }
+        return signature;
+    }
+
+    /**
+     * Index pairs {@code (i, j)}, {@code i < j}, that share a band, encoded as
+     * {@code (long) i << 32 | j}. Bands are bucketed in parallel on the given pool. A bucket
+     * holding more than {@code maxBucketSize} sets is skipped: it stands for an answer pattern so
+     * common that it says nothing about copying, and would only flood the result.
+     */
+    public CandidatePairs candidatePairs(long[][] signatures, int maxBucketSize, ForkJoinPool pool) {
+        Set<Long> pairs = ConcurrentHashMap.newKeySet();
+        AtomicInteger skipped = new AtomicInteger();
+        pool.submit(() -> IntStream.range(0, bands).parallel().forEach(band -> {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            for (int i = 0; i < signatures.length; i++) {
+                buckets.computeIfAbsent(bandKey(signatures[i], band), key -> new ArrayList<>()).add(i);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                if (bucket.size() > maxBucketSize) {
+                    skipped.incrementAndGet();
+                    continue;
+                }
+                for (int a = 0; a < bucket.size(); a++) {
+                    for (int b = a + 1; b < bucket.size(); b++) {
+                        pairs.add((long) bucket.get(a) << 32 | bucket.get(b));
+                    }
+                }
+            }
+        })).join();
+        return new CandidatePairs(pairs, skipped.get());
+    }
+
+    /** Exact Jaccard similarity of two sorted, duplicate-free arrays. */
+    public static double jaccard(long[] a, long[] b) {
+        int shared = intersectionSize(a, b);
+        int union = a.length + b.length - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+
+    public static int intersectionSize(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int shared = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    private long bandKey(long[] signature, int band) {
+        long key = band;
+        for (int r = band * rows; r < (band + 1) * rows; r++) {
+            key = mix(key ^ signature[r]);
+        }
+        return key;
+    }
+
+    // MurmurHash3 fmix64.
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    public record CandidatePairs(Set<Long> pairs, int skippedBuckets) {
+    }
+}
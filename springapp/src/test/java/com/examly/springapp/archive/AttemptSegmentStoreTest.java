@@ -0,0 +1,162 @@
+package com.examly.springapp.archive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The segment and index files on disk: what is written is read back through the memory-mapped
+ * reader, pending segments stay invisible until committed, and indexes of older formats still load.
+ */
+public class AttemptSegmentStoreTest {
+
+    private static final int INDEX_MAGIC_V2 = 0x51415832;
+
+    @TempDir
+    Path dir;
+
+    private AttemptSegmentStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = open();
+    }
+
+    @Test
+    void readsBackEveryFieldAcrossBlocks() throws IOException {
+        List<ArchivedAttempt> attempts = new ArrayList<>();
+        for (int i = 1; i <= 2500; i++) {
+            attempts.add(attempt(i, 10 + i % 3, i % 2 == 0 ? 100L + i % 5 : null, 1000L * i));
+        }
+        attempts.add(new ArchivedAttempt(9000, 10, null, null, null, null, null, null, 0));
+
+        store.commit(store.writeSegment(attempts));
+
+        List<ArchivedAttempt> read = new ArrayList<>(store.findAll(attempt -> true));
+        read.sort(Comparator.comparingLong(ArchivedAttempt::id));
+        assertEquals(attempts, read);
+    }
+
+    @Test
+    void pendingSegmentsAreInvisibleUntilCommitted() throws IOException {
+        Path pending = store.writeSegment(List.of(attempt(1, 10, 100L, 1000), attempt(2, 11, null, 2000)));
+
+        assertEquals(List.of(pending), store.pendingSegments());
+        assertEquals(List.of(1L, 2L), store.idsIn(pending));
+        assertTrue(store.findAll(attempt -> true).isEmpty());
+        assertFalse(store.containsQuiz(10));
+        assertTrue(open().findAll(attempt -> true).isEmpty());
+
+        store.commit(pending);
+
+        assertTrue(store.pendingSegments().isEmpty());
+        assertTrue(store.containsQuiz(10));
+        assertEquals(2, open().findAll(attempt -> true).size());
+    }
+
+    @Test
+    void findsByQuizStudentAndCompletionTime() throws IOException {
+        store.commit(store.writeSegment(List.of(attempt(1, 10, 100L, 1000), attempt(2, 11, 101L, 2000))));
+        store.commit(store.writeSegment(List.of(attempt(3, 10, 101L, 5000), attempt(4, 12, null, 6000))));
+
+        assertEquals(List.of(1L, 3L), ids(store.findByQuizId(10)));
+        assertEquals(List.of(2L, 3L), ids(store.findByStudentId(101)));
+        assertFalse(store.containsQuiz(13));
+        List<ArchivedAttempt> between = new ArrayList<>();
+        store.forEachCompletedBetween(2000, 5000, between::add);
+        assertEquals(List.of(2L, 3L), ids(between));
+    }
+
+    @Test
+    void loadsSegmentsCommittedByAnotherNode() throws IOException {
+        AttemptSegmentStore other = open();
+        other.commit(other.writeSegment(List.of(attempt(1, 10, 100L, 1000))));
+
+        assertFalse(store.containsQuiz(10));
+        store.refresh();
+        assertTrue(store.containsQuiz(10));
+    }
+
+    @Test
+    void readsIndexesWrittenBeforeExactPoints() throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(raw);
+        record.writeLong(7);
+        record.writeLong(10);
+        record.writeBoolean(true);
+        record.writeUTF("Old quiz");
+        record.writeLong(100);
+        record.writeBoolean(true);
+        record.writeUTF("alice");
+        record.writeInt(3);
+        record.writeInt(5);
+        record.writeLong(1000);
+        byte[] compressed = deflate(raw.toByteArray());
+        Files.write(dir.resolve("segment-0000000001.seg"), compressed);
+        try (DataOutputStream index = new DataOutputStream(Files.newOutputStream(dir.resolve("segment-0000000001.idx")))) {
+            index.writeInt(INDEX_MAGIC_V2);
+            index.writeUTF("segment-0000000001.seg");
+            index.writeLong(7);
+            index.writeLong(7);
+            index.writeLong(1000);
+            index.writeLong(1000);
+            index.writeInt(1);
+            index.writeLong(10);
+            index.writeInt(1);
+            index.writeLong(100);
+            index.writeInt(1);
+            index.writeLong(0);
+            index.writeInt(compressed.length);
+            index.writeInt(raw.size());
+            index.writeInt(1);
+        }
+
+        assertEquals(List.of(new ArchivedAttempt(7, 10, "Old quiz", 100L, "alice", 3, null, 5, 1000)),
+                open().findByQuizId(10));
+    }
+
+    @Test
+    void refusesFilesThatAreNotIndexes() throws IOException {
+        Files.write(dir.resolve("segment-0000000001.idx"), new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThrows(IOException.class, this::open);
+    }
+
+    private AttemptSegmentStore open() throws IOException {
+        AttemptSegmentStore opened = new AttemptSegmentStore(dir.toString(), 10_000);
+        opened.open();
+        return opened;
+    }
+
+    private static ArchivedAttempt attempt(long id, long quizId, Long studentId, long completedAt) {
+        return new ArchivedAttempt(id, quizId, "Quiz " + quizId, studentId, "student " + id, (int) (id % 6),
+                id % 4 == 0 ? null : (id % 6) - 0.25, 5, completedAt);
+    }
+
+    private static List<Long> ids(List<ArchivedAttempt> attempts) {
+        return attempts.stream().map(ArchivedAttempt::id).sorted().toList();
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] buffer = new byte[raw.length + 64];
+        int length = deflater.deflate(buffer);
+        deflater.end();
+        return Arrays.copyOf(buffer, length);
+    }
+}
@@ -0,0 +1,98 @@
+package com.examly.springapp.benchmark;
+
+import com.examly.springapp.dto.OptionDTO;
+import com.examly.springapp.dto.QuestionDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON, CBOR and Smile for a typical question list (long question text, four options).
+ * Payload sizes are logged once per trial; throughput covers serialize and deserialize.
+ * Run with {@code main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionPayloadBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionPayloadBenchmark.class);
+    private static final TypeReference<List<QuestionDTO>> QUESTION_LIST = new TypeReference<>() { };
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"50"})
+    public int questionCount;
+
+    private ObjectMapper mapper;
+    private List<QuestionDTO> questions;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> new ObjectMapper();
+        };
+        questions = sampleQuestions(questionCount);
+        encoded = mapper.writeValueAsBytes(questions);
+        log.info("{} payload for {} questions: {} bytes", format, questionCount, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(questions);
+    }
+
+    @Benchmark
+    public List<QuestionDTO> deserialize() throws IOException {
+        return mapper.readValue(encoded, QUESTION_LIST);
+    }
+
+    static List<QuestionDTO> sampleQuestions(int count) {
+        List<QuestionDTO> questions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            QuestionDTO question = new QuestionDTO();
+            question.setId(1000L + i);
+            question.setQuestionText("Question " + i + ": Which of the following statements about the Java memory model"
+                    + " and the happens-before relationship between a volatile write and a subsequent volatile read"
+                    + " of the same field is correct when both threads run on different cores?");
+            question.setQuestionType("MULTIPLE_CHOICE");
+            List<OptionDTO> options = new ArrayList<>(4);
+            for (int j = 0; j < 4; j++) {
+                OptionDTO option = new OptionDTO();
+                option.setId(10_000L + i * 4L + j);
+                option.setOptionText("Option " + j + ": the write is visible to the reader together with every"
+                        + " write that preceded it in program order");
+                option.setIsCorrect(j == 0);
+                options.add(option);
+            }
+            question.setOptions(options);
+            questions.add(question);
+        }
+        return questions;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QuestionPayloadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
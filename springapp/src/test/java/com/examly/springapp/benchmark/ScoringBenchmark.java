@@ -0,0 +1,88 @@
+package com.examly.springapp.benchmark;
+
+import com.examly.springapp.cache.QuizSnapshot;
+import com.examly.springapp.dto.AnswerDTO;
+import com.examly.springapp.scoring.AnswerKey;
+import com.examly.springapp.scoring.ScoringEngine;
+import com.examly.springapp.scoring.ScoringMode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grades a 1,000-question paper of mixed question types. {@code scoreKey} measures the bitmask
+ * scoring loop alone (run with {@code -prof gc} to confirm it allocates nothing);
+ * {@code gradeSubmission} adds folding the submitted answers into selection masks.
+ * Run with {@code main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+
+    private static final ScoringMode[] MODES = ScoringMode.values();
+
+    @Param({"1000"})
+    public int questionCount;
+
+    private ScoringEngine engine;
+    private QuizSnapshot snapshot;
+    private AnswerKey key;
+    private List<AnswerDTO> answers;
+    private long[] selections;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new ScoringEngine(0.25);
+        SplittableRandom random = new SplittableRandom(42);
+        List<QuizSnapshot.QuestionEntry> questions = new ArrayList<>();
+        answers = new ArrayList<>();
+        long optionId = 1;
+        for (int q = 0; q < questionCount; q++) {
+            ScoringMode mode = MODES[q % MODES.length];
+            QuizSnapshot.OptionEntry[] options = new QuizSnapshot.OptionEntry[4];
+            List<Long> picked = new ArrayList<>();
+            for (int o = 0; o < options.length; o++) {
+                boolean correct = mode.allowsSeveralCorrect() ? random.nextBoolean() || o == 0 : o == 0;
+                options[o] = new QuizSnapshot.OptionEntry(optionId, "Option " + o, correct);
+                if (random.nextInt(3) == 0) {
+                    picked.add(optionId);
+                }
+                optionId++;
+            }
+            questions.add(new QuizSnapshot.QuestionEntry(q + 1, "Question " + q, mode.name(), options));
+            AnswerDTO answer = new AnswerDTO();
+            answer.setQuestionId((long) q + 1);
+            answer.setSelectedOptionIds(picked);
+            answers.add(answer);
+        }
+        snapshot = new QuizSnapshot(1, 1, "Benchmark", questions);
+        key = snapshot.answerKey();
+        selections = ScoringEngine.selections(snapshot, answers);
+    }
+
+    @Benchmark
+    public double scoreKey() {
+        return engine.score(key, selections);
+    }
+
+    @Benchmark
+    public double gradeSubmission() {
+        return engine.grade(snapshot, answers);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ScoringBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
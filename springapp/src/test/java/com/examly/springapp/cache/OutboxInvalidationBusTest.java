@@ -0,0 +1,118 @@
+package com.examly.springapp.cache;
+
+import com.examly.springapp.model.CacheInvalidation;
+import com.examly.springapp.repository.CacheInvalidationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Polling the outbox over an in-memory table: events of other nodes are applied exactly once, and
+ * ids that become visible out of order are picked up on a later poll until the settle window ends.
+ */
+public class OutboxInvalidationBusTest {
+
+    private final TreeMap<Long, CacheInvalidation> table = new TreeMap<>();
+    private final List<Long> delivered = new ArrayList<>();
+    private CacheInvalidationRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(CacheInvalidationRepository.class);
+        when(repository.findMaxId()).thenAnswer(call -> table.isEmpty() ? 0L : table.lastKey());
+        when(repository.findAfter(anyLong(), any())).thenAnswer(call ->
+                new ArrayList<>(table.tailMap(call.<Long>getArgument(0), false).values()));
+        when(repository.findAllById(any())).thenAnswer(call -> ((Collection<Long>) call.getArgument(0)).stream()
+                .filter(table::containsKey)
+                .map(table::get)
+                .toList());
+    }
+
+    @Test
+    void appliesEventsOfOtherNodesOnce() {
+        OutboxInvalidationBus bus = bus(Duration.ofMinutes(1));
+        insert(1, "other");
+        insert(2, bus.nodeId());
+        insert(3, "other");
+
+        bus.poll();
+        bus.poll();
+
+        assertEquals(List.of(1L, 3L), delivered);
+    }
+
+    @Test
+    void startsAfterEventsWrittenBeforeItStarted() {
+        insert(1, "other");
+        OutboxInvalidationBus bus = bus(Duration.ofMinutes(1));
+        insert(2, "other");
+
+        bus.poll();
+
+        assertEquals(List.of(2L), delivered);
+    }
+
+    @Test
+    void appliesIdsThatCommitLateExactlyOnce() {
+        OutboxInvalidationBus bus = bus(Duration.ofMinutes(1));
+        insert(1, "other");
+        insert(3, "other");
+        bus.poll();
+        assertEquals(List.of(1L, 3L), delivered);
+
+        insert(2, "other");
+        insert(4, "other");
+        bus.poll();
+        bus.poll();
+
+        assertEquals(List.of(1L, 3L, 2L, 4L), delivered);
+    }
+
+    @Test
+    void stopsLookingForIdsThatNeverCommit() throws InterruptedException {
+        OutboxInvalidationBus bus = bus(Duration.ofMillis(500));
+        insert(1, "other");
+        insert(3, "other");
+        bus.poll();
+        verify(repository, never()).findAllById(any());
+
+        bus.poll();
+        verify(repository, times(1)).findAllById(any());
+        Thread.sleep(600);
+        bus.poll();
+        insert(2, "other");
+        bus.poll();
+
+        verify(repository, times(1)).findAllById(any());
+        assertEquals(List.of(1L, 3L), delivered);
+    }
+
+    private OutboxInvalidationBus bus(Duration settleWindow) {
+        OutboxInvalidationBus bus = new OutboxInvalidationBus(repository, settleWindow, Duration.ofHours(1));
+        bus.start();
+        bus.subscribe(event -> delivered.add(event.id()));
+        return bus;
+    }
+
+    private void insert(long id, String origin) {
+        table.put(id, CacheInvalidation.builder()
+                .id(id)
+                .entity(InvalidationEvent.QUIZ)
+                .entityId(id)
+                .origin(origin)
+                .createdAt(new Date())
+                .build());
+    }
+}
@@ -0,0 +1,65 @@
+package com.examly.springapp.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShuffledPaperTest {
+
+    @Test
+    void sameStudentGetsTheSamePaper() {
+        QuizSnapshot snapshot = snapshot(8, 4);
+        ShuffledPaper first = ShuffledPaper.of(snapshot, "alice");
+        ShuffledPaper second = ShuffledPaper.of(snapshot, "alice");
+        for (int position = 0; position < first.size(); position++) {
+            int q = first.canonicalQuestion(position);
+            assertEquals(q, second.canonicalQuestion(position));
+            for (int o = 0; o < 4; o++) {
+                assertEquals(first.canonicalOption(q, o), second.canonicalOption(q, o));
+            }
+        }
+    }
+
+    @Test
+    void studentsWithCollidingHashCodesGetDifferentSeeds() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(ShuffledPaper.seed(1, 1, "Aa"), ShuffledPaper.seed(1, 1, "BB"));
+    }
+
+    @Test
+    void seedsDoNotCollideAcrossACohort() {
+        Set<Long> seeds = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            seeds.add(ShuffledPaper.seed(1, 1, "student" + i + "@example.com"));
+        }
+        assertEquals(100_000, seeds.size());
+    }
+
+    @Test
+    void paperIsAPermutationOfTheSnapshot() {
+        ShuffledPaper paper = ShuffledPaper.of(snapshot(10, 5), "bob");
+        assertEquals(10, paper.size());
+        assertEquals(IntStream.range(0, 10).boxed().toList(),
+                IntStream.range(0, 10).map(paper::canonicalQuestion).sorted().boxed().toList());
+        assertEquals(IntStream.range(0, 5).boxed().toList(),
+                IntStream.range(0, 5).map(o -> paper.canonicalOption(3, o)).sorted().boxed().toList());
+    }
+
+    private static QuizSnapshot snapshot(int questions, int options) {
+        List<QuizSnapshot.QuestionEntry> entries = new ArrayList<>();
+        for (int q = 0; q < questions; q++) {
+            QuizSnapshot.OptionEntry[] optionEntries = new QuizSnapshot.OptionEntry[options];
+            for (int o = 0; o < options; o++) {
+                optionEntries[o] = new QuizSnapshot.OptionEntry(q * 10L + o, "Option " + o, o == 0);
+            }
+            entries.add(new QuizSnapshot.QuestionEntry(q + 1, "Question " + q, "MULTIPLE_CHOICE", optionEntries));
+        }
+        return new QuizSnapshot(1, 1, "Quiz", entries);
+    }
+}
@@ -0,0 +1,107 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.performance.EndpointPerformanceTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Correcting an answer key against the in-memory database: the correction reaches the question's
+ * copies in later versions, and every attempt that answered one of them is re-scored.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+@Import(EndpointPerformanceTest.PerformanceJpaConfig.class)
+public class AnswerKeyCorrectionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void correctionReachesCopiesAndTheirAttempts() throws Exception {
+        long quizId = read(perform(post("/api/quizzes").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Key quiz\",\"description\":\"Wrong key\",\"timeLimit\":10}"))
+                .andExpect(status().isCreated())).get("id").asLong();
+        JsonNode question = read(perform(post("/api/quizzes/{id}/questions", quizId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"questionText\":\"Which one?\",\"questionType\":\"MULTIPLE_CHOICE\",\"options\":["
+                        + "{\"optionText\":\"Marked\",\"isCorrect\":true},{\"optionText\":\"Actually right\",\"isCorrect\":false}]}"))
+                .andExpect(status().isCreated()));
+        long questionId = question.get("id").asLong();
+        long rightOption = question.get("options").get(1).get("id").asLong();
+        long oldAttempt = submit(quizId, questionId, rightOption);
+
+        long draftId = read(perform(post("/api/quizzes/{id}/drafts", quizId)).andExpect(status().isOk())).get("id").asLong();
+        perform(post("/api/quizzes/{id}/publish", draftId)).andExpect(status().isOk());
+        JsonNode copy = read(perform(get("/api/quizzes/{id}/questions", draftId)).andExpect(status().isOk())).get(0);
+        long newAttempt = submit(draftId, copy.get("id").asLong(), copy.get("options").get(1).get("id").asLong());
+        assertEquals(List.of(0, 0), scores(oldAttempt, newAttempt));
+
+        String jobId = read(perform(put("/api/quizzes/{quizId}/questions/{questionId}/answer-key", quizId, questionId)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"correctOptionIds\":[" + rightOption + "]}"))
+                .andExpect(status().isAccepted())).get("id").asText();
+        awaitCompleted(jobId);
+
+        assertEquals(List.of(1, 1), scores(oldAttempt, newAttempt));
+        perform(get("/api/quizzes/{id}/questions", draftId))
+                .andExpect(jsonPath("$[0].options[0].isCorrect").value(false))
+                .andExpect(jsonPath("$[0].options[1].isCorrect").value(true));
+    }
+
+    private long submit(long quizId, long questionId, long optionId) throws Exception {
+        return read(perform(post("/api/quiz-attempts").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quizId\":" + quizId + ",\"studentName\":\"key-student\",\"answers\":[{\"questionId\":"
+                        + questionId + ",\"selectedOptionId\":" + optionId + "}]}"))
+                .andExpect(status().isCreated())).get("id").asLong();
+    }
+
+    private List<Integer> scores(long... attemptIds) {
+        return Arrays.stream(attemptIds)
+                .mapToObj(id -> jdbcTemplate.queryForObject("select score from quiz_attempts where id = ?", Integer.class, id))
+                .toList();
+    }
+
+    private void awaitCompleted(String jobId) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            String state = read(perform(get("/api/reports/{jobId}", jobId))).get("state").asText();
+            if (!state.equals("QUEUED") && !state.equals("RUNNING")) {
+                assertEquals("COMPLETED", state);
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Rescore did not finish");
+    }
+
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        return mockMvc.perform(request);
+    }
+
+    private JsonNode read(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
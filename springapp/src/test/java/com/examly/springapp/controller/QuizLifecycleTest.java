@@ -0,0 +1,135 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.config.DataMigrationRunner;
+import com.examly.springapp.performance.EndpointPerformanceTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The admin flow through the API against the in-memory database: a quiz is attemptable as soon as
+ * it is created, editable until its first attempt, and changed through drafts afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+@Import(EndpointPerformanceTest.PerformanceJpaConfig.class)
+public class QuizLifecycleTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataMigrationRunner dataMigrationRunner;
+
+    @Test
+    void createdQuizCanBeFilledAndAttempted() throws Exception {
+        long quizId = createQuiz("Lifecycle quiz");
+        JsonNode question = addQuestion(quizId).andExpect(status().isCreated()).andReturn().getResponse()
+                .getContentAsString().transform(this::read);
+        long questionId = question.get("id").asLong();
+        long correctOption = question.get("options").get(1).get("id").asLong();
+
+        perform(get("/api/quizzes/{id}/questions/paper", quizId).param("student", "lifecycle-student"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        submit(quizId, questionId, correctOption)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.score").value(1));
+        perform(get("/api/quizzes"))
+                .andExpect(jsonPath("$[?(@.id == " + quizId + ")].status").value("PUBLISHED"));
+    }
+
+    @Test
+    void attemptedQuizIsChangedThroughADraft() throws Exception {
+        long quizId = createQuiz("Frozen quiz");
+        JsonNode question = addQuestion(quizId).andReturn().getResponse().getContentAsString().transform(this::read);
+        long questionId = question.get("id").asLong();
+        long option = question.get("options").get(0).get("id").asLong();
+        submit(quizId, questionId, option).andExpect(status().isCreated());
+
+        addQuestion(quizId).andExpect(status().isConflict());
+        perform(patch("/api/quizzes/{id}", quizId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"version\":0,\"title\":\"Renamed\"}")).andExpect(status().isConflict());
+        perform(delete("/api/quizzes/{id}", quizId)).andExpect(status().isConflict());
+
+        long draftId = perform(post("/api/quizzes/{id}/drafts", quizId)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().transform(this::read).get("id").asLong();
+        addQuestion(draftId).andExpect(status().isCreated());
+        perform(get("/api/quizzes/{id}/questions/paper", draftId).param("student", "lifecycle-student"))
+                .andExpect(status().isConflict());
+        perform(get("/api/quizzes")).andExpect(jsonPath("$[?(@.id == " + draftId + ")]").isEmpty());
+
+        perform(post("/api/quizzes/{id}/publish", draftId)).andExpect(status().isOk());
+        perform(get("/api/quizzes/{id}/questions/paper", draftId).param("student", "lifecycle-student"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        perform(get("/api/quizzes/{id}/questions/paper", quizId).param("student", "lifecycle-student"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void quizzesWithoutStatusArePublishedOnStart() throws Exception {
+        jdbcTemplate.update("insert into quizzes (id, title, description, time_limit, created_at, updated_at, version)"
+                + " values (990001, 'Legacy', 'Created before versioning', 10, current_timestamp, current_timestamp, 0)");
+        dataMigrationRunner.run();
+        assertEquals("PUBLISHED", jdbcTemplate.queryForObject("select status from quizzes where id = 990001", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select revision from quizzes where id = 990001", Integer.class));
+    }
+
+    private long createQuiz(String title) throws Exception {
+        String body = perform(post("/api/quizzes").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"" + title + "\",\"description\":\"Lifecycle\",\"timeLimit\":10}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("PUBLISHED"))
+                .andReturn().getResponse().getContentAsString();
+        return read(body).get("id").asLong();
+    }
+
+    private ResultActions addQuestion(long quizId) throws Exception {
+        return perform(post("/api/quizzes/{id}/questions", quizId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"questionText\":\"Which one?\",\"questionType\":\"MULTIPLE_CHOICE\",\"options\":["
+                        + "{\"optionText\":\"Wrong\",\"isCorrect\":false},{\"optionText\":\"Right\",\"isCorrect\":true}]}"));
+    }
+
+    private ResultActions submit(long quizId, long questionId, long optionId) throws Exception {
+        return perform(post("/api/quiz-attempts").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quizId\":" + quizId + ",\"studentName\":\"lifecycle-student\",\"answers\":[{\"questionId\":"
+                        + questionId + ",\"selectedOptionId\":" + optionId + "}]}"));
+    }
+
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        return mockMvc.perform(request);
+    }
+
+    private JsonNode read(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
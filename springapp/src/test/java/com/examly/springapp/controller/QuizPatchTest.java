@@ -0,0 +1,81 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.performance.EndpointPerformanceTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * PATCH against the in-memory database: only the fields sent change, the new version comes back
+ * as the ETag, and a stale version is rejected with 409 instead of overwriting the newer edit.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+@Import(EndpointPerformanceTest.PerformanceJpaConfig.class)
+public class QuizPatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void patchChangesOnlyTheFieldsSentAndBumpsTheVersion() throws Exception {
+        long quizId = createQuiz();
+
+        patchQuiz(quizId, "{\"version\":0,\"title\":\"Patched title\"}")
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        mockMvc.perform(get("/api/quizzes/{id}", quizId))
+                .andExpect(jsonPath("$.title").value("Patched title"))
+                .andExpect(jsonPath("$.description").value("Before patching"))
+                .andExpect(jsonPath("$.timeLimit").value(15))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void staleVersionIsRejected() throws Exception {
+        long quizId = createQuiz();
+        patchQuiz(quizId, "{\"version\":0,\"timeLimit\":20}").andExpect(status().isNoContent());
+
+        patchQuiz(quizId, "{\"version\":0,\"timeLimit\":30}").andExpect(status().isConflict());
+        patchQuiz(quizId, "{\"version\":1,\"timeLimit\":30}").andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/quizzes/{id}", quizId)).andExpect(jsonPath("$.timeLimit").value(30));
+    }
+
+    @Test
+    void versionIsRequiredAndTheQuizMustExist() throws Exception {
+        long quizId = createQuiz();
+
+        patchQuiz(quizId, "{\"title\":\"No version\"}").andExpect(status().isBadRequest());
+        patchQuiz(Long.MAX_VALUE, "{\"version\":0,\"title\":\"Missing\"}").andExpect(status().isNotFound());
+    }
+
+    private long createQuiz() throws Exception {
+        String body = mockMvc.perform(post("/api/quizzes").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Patch quiz\",\"description\":\"Before patching\",\"timeLimit\":15}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private ResultActions patchQuiz(long quizId, String body) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.patch("/api/quizzes/{id}", quizId)
+                .contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+}
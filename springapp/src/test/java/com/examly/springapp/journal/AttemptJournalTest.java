@@ -0,0 +1,144 @@
+package com.examly.springapp.journal;
+
+import com.examly.springapp.model.AttemptAnswer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Recovery of the on-disk journal after crashes, on a real file in a temporary directory. */
+public class AttemptJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private AttemptJournal journal;
+
+    @AfterEach
+    void closeJournal() throws Exception {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void tornRecordAtTheEndIsCutOffOnOpen() throws Exception {
+        journal = open();
+        journal.append(attempt("a"));
+        journal.append(attempt("b"));
+        journal.close();
+        long intact = Files.size(log());
+        // A crash mid-write: a header announcing 100 bytes followed by only part of them.
+        try (FileChannel channel = FileChannel.open(log(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(20).putInt(0, 100).putInt(4, 12345));
+        }
+
+        journal = open();
+
+        assertEquals(intact, Files.size(log()));
+        assertEquals(List.of("a", "b"), keys(journal.readPending(10)));
+        journal.append(attempt("c"));
+        journal.close();
+        journal = open();
+        assertEquals(List.of("a", "b", "c"), keys(journal.readPending(10)));
+    }
+
+    @Test
+    void recordFailingItsChecksumEndsTheLog() throws Exception {
+        journal = open();
+        journal.append(attempt("a"));
+        journal.append(attempt("b"));
+        journal.close();
+        byte[] bytes = Files.readAllBytes(log());
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(log(), bytes);
+
+        journal = open();
+
+        assertEquals(List.of("a"), keys(journal.readPending(10)));
+        assertTrue(journal.findPending("a").isPresent());
+        assertFalse(journal.findPending("b").isPresent());
+    }
+
+    @Test
+    void checkpointSurvivesRestart() throws Exception {
+        journal = open();
+        journal.append(attempt("a"));
+        journal.append(attempt("b"));
+        journal.append(attempt("c"));
+        journal.checkpoint(journal.readPending(2));
+        journal.close();
+
+        journal = open();
+
+        assertEquals(List.of("c"), keys(journal.readPending(10)));
+        assertFalse(journal.findPending("a").isPresent());
+    }
+
+    @Test
+    void crashBetweenCheckpointAndTruncateReplaysEverything() throws Exception {
+        journal = open();
+        journal.append(attempt("a"));
+        journal.append(attempt("b"));
+        byte[] beforeTruncate = Files.readAllBytes(log());
+        journal.checkpoint(journal.readPending(10));
+        assertEquals(0, Files.size(log()));
+        assertFalse(journal.hasPending());
+        journal.close();
+        // The checkpoint was reset to zero, but the log was never truncated.
+        Files.write(log(), beforeTruncate);
+
+        journal = open();
+
+        assertTrue(journal.hasPending());
+        assertEquals(List.of("a", "b"), keys(journal.readPending(10)));
+    }
+
+    @Test
+    void checkpointPastTheEndOfTheLogStartsFromTheBeginning() throws Exception {
+        journal = open();
+        journal.append(attempt("a"));
+        journal.append(attempt("b"));
+        journal.checkpoint(journal.readPending(1));
+        journal.close();
+        // The log was emptied and a new record written, but the old checkpoint stayed behind.
+        Files.write(log(), new byte[0]);
+        journal = open();
+        journal.append(attempt("c"));
+        journal.close();
+        Files.write(dir.resolve("attempts.checkpoint"), ByteBuffer.allocate(Long.BYTES).putLong(0, 1 << 20).array());
+
+        journal = open();
+
+        assertEquals(List.of("c"), keys(journal.readPending(10)));
+    }
+
+    private AttemptJournal open() throws IOException {
+        AttemptJournal opened = new AttemptJournal(new SimpleMeterRegistry(), true, dir.toString(), 16, 4);
+        opened.open();
+        return opened;
+    }
+
+    private Path log() {
+        return dir.resolve("attempts.journal");
+    }
+
+    static ScoredAttempt attempt(String key) {
+        return new ScoredAttempt(key, null, 1L, "Quiz", "alice", 1, 0.75, 2, 1_700_000_000_000L,
+                List.of(new AttemptAnswer(10L, 100L, true), new AttemptAnswer(11L, 111L, false)));
+    }
+
+    private static List<String> keys(List<AttemptJournal.Entry> entries) {
+        return entries.stream().map(entry -> entry.attempt().idempotencyKey()).toList();
+    }
+}
@@ -0,0 +1,316 @@
+package com.examly.springapp.performance;
+
+import com.examly.springapp.dto.AnswerDTO;
+import com.examly.springapp.dto.OptionDTO;
+import com.examly.springapp.dto.QuestionDTO;
+import com.examly.springapp.dto.QuizAttemptDTO;
+import com.examly.springapp.dto.QuizDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Allocation budgets and latency baselines for the scenarios covered by QuizManagementSystemApplicationTests,
+ * run against an H2 database seeded at production-like scale. Requests go through MockMvc on the
+ * test thread, so the thread's allocation counter covers the whole request. Budgets, baseline
+ * settings and scale live in performance-budgets.properties. Excluded from the default build; run with
+ * {@code mvn test -Pperformance}.
+ *
+ * <p>The application excludes Spring Boot's JPA auto-configuration, so the suite wires the
+ * entity manager itself from the {@code spring.jpa.*} properties.
+ */
+@Tag("performance")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class EndpointPerformanceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EndpointPerformanceTest.class);
+    private static final long FIRST_ID = 1_000_000L;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Properties budgets = new Properties();
+    private final Properties latencyBaseline = new Properties();
+    private final Properties measuredLatency = new Properties();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final SplittableRandom random = new SplittableRandom(7);
+    private int quizzes;
+    private int questionsPerQuiz;
+    private int optionsPerQuestion;
+    private long[] createdQuizIds;
+
+    @BeforeAll
+    void seed() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/performance-budgets.properties")) {
+            budgets.load(in);
+        }
+        String baseline = budget("latency.baseline");
+        if (baseline != null && !baseline.isBlank()) {
+            try (InputStream in = Files.newInputStream(Path.of(baseline))) {
+                latencyBaseline.load(in);
+            }
+        }
+        quizzes = intBudget("seed.quizzes");
+        questionsPerQuiz = intBudget("seed.questions-per-quiz");
+        optionsPerQuestion = intBudget("seed.options-per-question");
+        int attempts = intBudget("seed.attempts");
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        insert("insert into quizzes (id, title, description, time_limit, created_at, updated_at, version, status, revision)"
+                + " values (?, ?, ?, ?, ?, ?, 0, 'PUBLISHED', 1)",
+                quizzes, i -> new Object[] {FIRST_ID + i, "Quiz " + i, "Seeded quiz " + i, 30, now, now});
+        int questions = quizzes * questionsPerQuiz;
+        insert("insert into questions (id, quiz_id, question_text, question_type) values (?, ?, ?, 'MULTIPLE_CHOICE')",
+                questions, i -> new Object[] {FIRST_ID + i, FIRST_ID + i / questionsPerQuiz,
+                        "Seeded question " + i + " with enough text to look like a real prompt?"});
+        insert("insert into options (id, question_id, option_text, is_correct) values (?, ?, ?, ?)",
+                questions * optionsPerQuestion, i -> new Object[] {FIRST_ID + i, FIRST_ID + i / optionsPerQuestion,
+                        "Option " + i % optionsPerQuestion, i % optionsPerQuestion == 0});
+        insert("insert into quiz_attempts (id, quiz_id, student_name, score, total_questions, completed_at) values (?, ?, ?, ?, ?, ?)",
+                attempts, i -> new Object[] {FIRST_ID + i, FIRST_ID + i % quizzes, "student" + i % 5000,
+                        i % (questionsPerQuiz + 1), questionsPerQuiz, new Timestamp(now.getTime() - i * 1000L)});
+    }
+
+    @AfterAll
+    void recordLatency() throws IOException {
+        String record = budget("latency.record");
+        if (record != null && !record.isBlank()) {
+            try (OutputStream out = Files.newOutputStream(Path.of(record))) {
+                measuredLatency.store(out, "p95 latency (ms) per scenario, for latency.baseline");
+            }
+        }
+    }
+
+    @Test
+    @Order(1)
+    public void createQuizWithinBudget() throws Exception {
+        measure("create-quiz", i -> {
+            QuizDTO quiz = new QuizDTO();
+            quiz.setTitle("Performance quiz " + i);
+            quiz.setDescription("Created by the performance suite");
+            quiz.setTimeLimit(45);
+            return post("/api/quizzes").contentType(MediaType.APPLICATION_JSON).content(json(quiz));
+        });
+        // Seeded quizzes have attempts and are frozen; questions go to the new, unattempted ones.
+        createdQuizIds = jdbcTemplate.queryForList("select id from quizzes where description = 'Created by the performance suite'",
+                Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @Test
+    @Order(2)
+    public void getQuizWithinBudget() throws Exception {
+        measure("get-quiz", i -> get("/api/quizzes/{id}", randomQuizId()));
+    }
+
+    @Test
+    @Order(3)
+    public void getQuestionsWithinBudget() throws Exception {
+        measure("get-questions", i -> get("/api/quizzes/{id}/questions", randomQuizId()));
+    }
+
+    @Test
+    @Order(4)
+    public void addQuestionWithinBudget() throws Exception {
+        measure("add-question", i -> {
+            QuestionDTO question = new QuestionDTO();
+            question.setQuestionText("Added question " + i + "?");
+            question.setQuestionType("MULTIPLE_CHOICE");
+            List<OptionDTO> options = new ArrayList<>();
+            for (int o = 0; o < optionsPerQuestion; o++) {
+                OptionDTO option = new OptionDTO();
+                option.setOptionText("Option " + o);
+                option.setIsCorrect(o == 0);
+                options.add(option);
+            }
+            question.setOptions(options);
+            return post("/api/quizzes/{id}/questions", createdQuizIds[random.nextInt(createdQuizIds.length)])
+                    .contentType(MediaType.APPLICATION_JSON).content(json(question));
+        });
+    }
+
+    @Test
+    @Order(5)
+    public void submitAttemptWithinBudget() throws Exception {
+        measure("submit-attempt", i -> {
+            long quizId = randomQuizId();
+            long firstQuestion = FIRST_ID + (quizId - FIRST_ID) * questionsPerQuiz;
+            List<AnswerDTO> answers = new ArrayList<>();
+            for (int q = 0; q < questionsPerQuiz; q++) {
+                long questionId = firstQuestion + q;
+                AnswerDTO answer = new AnswerDTO();
+                answer.setQuestionId(questionId);
+                answer.setSelectedOptionId(FIRST_ID + (questionId - FIRST_ID) * optionsPerQuestion + random.nextInt(optionsPerQuestion));
+                answers.add(answer);
+            }
+            QuizAttemptDTO attempt = new QuizAttemptDTO();
+            attempt.setQuizId(quizId);
+            attempt.setStudentName("perf-student-" + i);
+            attempt.setAnswers(answers);
+            return post("/api/quiz-attempts").contentType(MediaType.APPLICATION_JSON).content(json(attempt));
+        });
+    }
+
+    @Test
+    @Order(6)
+    public void listQuizAttemptsWithinBudget() throws Exception {
+        measure("list-quiz-attempts", i -> get("/api/quizzes/{id}/attempts", randomQuizId()));
+    }
+
+    private void measure(String scenario, IntFunction<RequestBuilder> request) throws Exception {
+        int warmup = intBudget("warmup.requests");
+        int requests = intBudget("measure.requests");
+        for (int i = 0; i < warmup; i++) {
+            perform(request.apply(i));
+        }
+        long threadId = Thread.currentThread().getId();
+        long[] latencies = new long[requests];
+        long allocated = 0;
+        for (int i = 0; i < requests; i++) {
+            RequestBuilder builder = request.apply(warmup + i);
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long started = System.nanoTime();
+            perform(builder);
+            latencies[i] = System.nanoTime() - started;
+            allocated += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        }
+        Arrays.sort(latencies);
+        double p95Millis = latencies[(int) Math.ceil(requests * 0.95) - 1] / 1_000_000.0;
+        double allocKb = allocated / (double) requests / 1024;
+        double tolerance = 1 + Double.parseDouble(budget("tolerance"));
+        double allocBudget = Double.parseDouble(budget(scenario + ".alloc-kb"));
+        String p95Baseline = latencyBaseline.getProperty(scenario + ".p95-ms");
+        measuredLatency.setProperty(scenario + ".p95-ms", String.format(Locale.ROOT, "%.2f", p95Millis));
+        log.info(String.format("%-20s p95 %8.2f ms (baseline %s)   alloc %9.1f KB/request (budget %8.1f)",
+                scenario, p95Millis, p95Baseline != null ? p95Baseline : "none", allocKb, allocBudget));
+        if (p95Baseline != null) {
+            double latencyTolerance = 1 + Double.parseDouble(budget("latency.tolerance"));
+            assertTrue(p95Millis <= Double.parseDouble(p95Baseline) * latencyTolerance,
+                    String.format("%s p95 latency %.2f ms exceeds baseline %s ms", scenario, p95Millis, p95Baseline));
+        }
+        assertTrue(allocKb <= allocBudget * tolerance,
+                String.format("%s allocates %.1f KB per request, budget %.1f KB", scenario, allocKb, allocBudget));
+    }
+
+    private void perform(RequestBuilder request) throws Exception {
+        int status = mockMvc.perform(request).andReturn().getResponse().getStatus();
+        assertTrue(status < 300, "Unexpected status " + status);
+    }
+
+    private long randomQuizId() {
+        return FIRST_ID + random.nextInt(quizzes);
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void insert(String sql, int rows, IntFunction<Object[]> row) {
+        for (int start = 0; start < rows; start += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = start; i < Math.min(rows, start + BATCH_SIZE); i++) {
+                batch.add(row.apply(i));
+            }
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    private String budget(String key) {
+        return System.getProperty(key, budgets.getProperty(key));
+    }
+
+    private int intBudget(String key) {
+        return Integer.parseInt(budget(key));
+    }
+
+    @TestConfiguration
+    public static class PerformanceJpaConfig {
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, Environment environment) {
+            Binder binder = Binder.get(environment);
+            Map<String, Object> properties = new HashMap<>(binder
+                    .bind("spring.jpa.properties", Bindable.mapOf(String.class, String.class))
+                    .orElse(Map.of()));
+            properties.put("hibernate.hbm2ddl.auto", environment.getProperty("spring.jpa.hibernate.ddl-auto", "create"));
+            properties.put("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName());
+            properties.put("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName());
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setPackagesToScan("com.examly.springapp.model");
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setJpaPropertyMap(properties);
+            return factory;
+        }
+
+        @Bean
+        JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+    }
+}
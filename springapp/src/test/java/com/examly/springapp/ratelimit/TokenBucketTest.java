@@ -0,0 +1,129 @@
+package com.examly.springapp.ratelimit;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The GCRA bucket on a hand-driven clock: a full bucket admits {@code capacity} requests at once,
+ * then one per emission interval, and tells a rejected caller how long to wait.
+ */
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long INTERVAL = SECOND / 2;
+    private static final int CAPACITY = 10;
+    private static final long TOLERANCE = INTERVAL * CAPACITY;
+
+    @Test
+    void admitsTheBurstCapacityAtOnce() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryAcquire(0, INTERVAL, TOLERANCE), "request " + i);
+        }
+        assertEquals(INTERVAL, bucket.tryAcquire(0, INTERVAL, TOLERANCE));
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < CAPACITY; i++) {
+            bucket.tryAcquire(0, INTERVAL, TOLERANCE);
+        }
+        assertEquals(INTERVAL / 2, bucket.tryAcquire(INTERVAL / 2, INTERVAL, TOLERANCE));
+        assertEquals(0, bucket.tryAcquire(INTERVAL, INTERVAL, TOLERANCE));
+        assertTrue(bucket.tryAcquire(INTERVAL, INTERVAL, TOLERANCE) > 0);
+        assertEquals(0, bucket.tryAcquire(2 * INTERVAL, INTERVAL, TOLERANCE));
+    }
+
+    @Test
+    void idleTimeRefillsNoMoreThanTheCapacity() {
+        TokenBucket bucket = new TokenBucket(0);
+        long later = 3600 * SECOND;
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryAcquire(later, INTERVAL, TOLERANCE));
+        }
+        assertTrue(bucket.tryAcquire(later, INTERVAL, TOLERANCE) > 0);
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeTokens() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < CAPACITY; i++) {
+            bucket.tryAcquire(0, INTERVAL, TOLERANCE);
+        }
+        for (int i = 0; i < 100; i++) {
+            bucket.tryAcquire(0, INTERVAL, TOLERANCE);
+        }
+        assertEquals(0, bucket.tryAcquire(INTERVAL, INTERVAL, TOLERANCE));
+    }
+
+    @Test
+    void isIdleOnceFullForTheIdlePeriod() {
+        TokenBucket bucket = new TokenBucket(0);
+        bucket.tryAcquire(0, INTERVAL, TOLERANCE);
+        assertFalse(bucket.idleSince(INTERVAL, SECOND));
+        assertTrue(bucket.idleSince(INTERVAL + SECOND + 1, SECOND));
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(0);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire(0, INTERVAL, TOLERANCE) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(CAPACITY, admitted.get());
+    }
+
+    @Test
+    void groupsWithoutRefillOrCapacityAreInvalid() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGroups(List.of(group(10, 0.5), group(10, 0), group(10, -1), group(0, 1)));
+
+        Set<ConstraintViolation<RateLimitProperties>> violations = validator.validate(properties);
+
+        assertEquals(Set.of("groups[1].refillPerSecond", "groups[2].refillPerSecond", "groups[3].capacity"),
+                violations.stream().map(violation -> violation.getPropertyPath().toString())
+                        .collect(Collectors.toSet()));
+    }
+
+    private static RateLimitProperties.Group group(int capacity, double refillPerSecond) {
+        RateLimitProperties.Group group = new RateLimitProperties.Group();
+        group.setName("attempts");
+        group.setPattern("/api/quiz-attempts");
+        group.setCapacity(capacity);
+        group.setRefillPerSecond(refillPerSecond);
+        return group;
+    }
+}
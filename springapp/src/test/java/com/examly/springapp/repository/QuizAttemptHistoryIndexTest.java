@@ -0,0 +1,108 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.model.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.data.jpa.repository.Query;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks on H2 that the student history query is planned against idx_attempts_student_completed,
+ * using the schema Hibernate generates from the entity mappings. The plan is taken for the SQL
+ * Hibernate generates from the repository's own JPQL, captured with a statement inspector.
+ */
+public class QuizAttemptHistoryIndexTest {
+
+    private static final String URL = "jdbc:h2:mem:attempt-history;DB_CLOSE_DELAY=-1";
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    private static StandardServiceRegistry registry;
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void createSchema() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.connection.url", URL)
+                .applySetting("hibernate.hbm2ddl.auto", "create")
+                .applySetting("hibernate.cache.use_second_level_cache", "false")
+                .applySetting("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .applySetting("hibernate.session_factory.statement_inspector", (StatementInspector) sql -> {
+                    statements.add(sql);
+                    return sql;
+                })
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(Quiz.class, Question.class, Option.class, QuizAttempt.class, Student.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    public void historyQueryUsesStudentCompletedIndex() throws Exception {
+        String plan = explain(generatedHistorySql(), 1L);
+
+        assertTrue(plan.contains("IDX_ATTEMPTS_STUDENT_COMPLETED: STUDENT_ID ="), plan);
+        assertFalse(plan.toLowerCase().contains("tablescan"), plan);
+    }
+
+    @Test
+    public void historyIndexCoversProjectedColumns() throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL);
+             ResultSet columns = connection.getMetaData().getIndexInfo(null, "PUBLIC", "QUIZ_ATTEMPTS", false, false)) {
+            StringBuilder indexed = new StringBuilder();
+            while (columns.next()) {
+                if ("IDX_ATTEMPTS_STUDENT_COMPLETED".equals(columns.getString("INDEX_NAME"))) {
+                    indexed.append(columns.getString("COLUMN_NAME")).append(',');
+                }
+            }
+            assertEquals("STUDENT_ID,COMPLETED_AT,QUIZ_ID,SCORE,POINTS,TOTAL_QUESTIONS,ID,", indexed.toString());
+        }
+    }
+
+    /** Runs the JPQL declared on QuizAttemptRepository.findHistoryByStudentId and returns the SQL sent. */
+    private static String generatedHistorySql() throws Exception {
+        String jpql = QuizAttemptRepository.class.getMethod("findHistoryByStudentId", Long.class)
+                .getAnnotation(Query.class).value();
+        statements.clear();
+        sessionFactory.inTransaction(session -> session.createQuery(jpql, Object[].class)
+                .setParameter("studentId", 1L)
+                .getResultList());
+        assertEquals(1, statements.size(), statements.toString());
+        return statements.get(0);
+    }
+
+    private static String explain(String sql, Object... parameters) throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL);
+             PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                assertTrue(plan.next());
+                return plan.getString(1);
+            }
+        }
+    }
+}
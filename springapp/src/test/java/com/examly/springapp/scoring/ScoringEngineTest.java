@@ -0,0 +1,150 @@
+package com.examly.springapp.scoring;
+
+import com.examly.springapp.cache.QuizSnapshot;
+import com.examly.springapp.dto.AnswerDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Grades single questions in every {@link ScoringMode}. Question {@code q} has options with ids
+ * {@code q * 1000 + position}; the correct positions are given per question.
+ */
+public class ScoringEngineTest {
+
+    private static final double PENALTY = 0.25;
+
+    private final ScoringEngine engine = new ScoringEngine(PENALTY);
+
+    @Test
+    void emptySelectionScoresZeroInEveryMode() {
+        for (ScoringMode mode : ScoringMode.values()) {
+            QuizSnapshot snapshot = quiz(question(1, mode, 4, 0));
+            assertEquals(0.0, grade(snapshot), mode.name());
+            assertEquals(0.0, grade(snapshot, answer(1)), mode.name());
+        }
+    }
+
+    @Test
+    void singleChoiceNeedsExactlyOneCorrectPick() {
+        QuizSnapshot snapshot = quiz(question(1, ScoringMode.SINGLE_CHOICE, 4, 2));
+        assertEquals(1.0, grade(snapshot, answer(1, 2)));
+        assertEquals(0.0, grade(snapshot, answer(1, 0)));
+        assertEquals(0.0, grade(snapshot, answer(1, 2, 3)));
+    }
+
+    @Test
+    void multiSelectNeedsExactlyTheCorrectSet() {
+        QuizSnapshot snapshot = quiz(question(1, ScoringMode.MULTI_SELECT, 4, 0, 2));
+        assertEquals(1.0, grade(snapshot, answer(1, 0, 2)));
+        assertEquals(0.0, grade(snapshot, answer(1, 0)));
+        assertEquals(0.0, grade(snapshot, answer(1, 0, 2, 3)));
+    }
+
+    @Test
+    void multiSelectWithoutCorrectOptionsNeverScores() {
+        QuizSnapshot snapshot = quiz(question(1, ScoringMode.MULTI_SELECT, 4));
+        assertEquals(0.0, grade(snapshot));
+        assertEquals(0.0, grade(snapshot, answer(1, 1)));
+    }
+
+    @Test
+    void partialCreditSubtractsExtraOptions() {
+        QuizSnapshot snapshot = quiz(question(1, ScoringMode.PARTIAL_CREDIT, 5, 0, 1, 2));
+        assertEquals(1.0, grade(snapshot, answer(1, 0, 1, 2)));
+        assertEquals(2.0 / 3, grade(snapshot, answer(1, 0, 1)), 1e-9);
+        assertEquals(1.0 / 3, grade(snapshot, answer(1, 0, 1, 3)), 1e-9);
+        assertEquals(0.0, grade(snapshot, answer(1, 0, 3, 4)));
+    }
+
+    @Test
+    void negativeMarkingCostsThePenaltyForWrongOrExtraPicks() {
+        QuizSnapshot snapshot = quiz(
+                question(1, ScoringMode.NEGATIVE_MARKING, 4, 1),
+                question(2, ScoringMode.NEGATIVE_MARKING, 4, 1),
+                question(3, ScoringMode.NEGATIVE_MARKING, 4, 1));
+        AnswerKey key = snapshot.answerKey();
+        assertEquals(1.0, engine.score(key, 0, 1L << 1));
+        assertEquals(-PENALTY, engine.score(key, 0, 1L));
+        assertEquals(-PENALTY, engine.score(key, 0, (1L << 1) | 1L));
+        assertEquals(0.0, engine.score(key, 0, 0));
+        assertEquals(2 - PENALTY, grade(snapshot, answer(1, 1), answer(2, 1), answer(3, 0)), 1e-9);
+    }
+
+    @Test
+    void totalNeverGoesBelowZero() {
+        QuizSnapshot snapshot = quiz(
+                question(1, ScoringMode.NEGATIVE_MARKING, 4, 1),
+                question(2, ScoringMode.NEGATIVE_MARKING, 4, 1));
+        assertEquals(0.0, grade(snapshot, answer(1, 0), answer(2, 0)));
+    }
+
+    @Test
+    void unknownQuestionsAndOptionsAreIgnored() {
+        QuizSnapshot snapshot = quiz(question(1, ScoringMode.SINGLE_CHOICE, 4, 2));
+        AnswerDTO foreignOption = new AnswerDTO();
+        foreignOption.setQuestionId(1L);
+        foreignOption.setSelectedOptionIds(List.of(2000L, 1002L));
+        assertEquals(1.0, grade(snapshot, answer(9, 2), foreignOption));
+    }
+
+    @Test
+    void optionsPastTheSixtyFourthAreNeitherKeyedNorSelectable() {
+        QuizSnapshot snapshot = quiz(question(1, ScoringMode.SINGLE_CHOICE, 70, 63, 65));
+        assertEquals(1L << 63, snapshot.answerKey().correctMask(0));
+        assertEquals(0L, ScoringEngine.selections(snapshot, List.of(answer(1, 64, 65)))[0]);
+        assertEquals(1.0, grade(snapshot, answer(1, 63)));
+        assertEquals(0.0, grade(snapshot, answer(1, 65)));
+        // The extra pick beyond the cap is dropped, so it cannot spoil an otherwise correct answer.
+        assertEquals(1.0, grade(snapshot, answer(1, 63, 65)));
+    }
+
+    @Test
+    void modeIsParsedFromTheQuestionType() {
+        assertEquals(ScoringMode.MULTI_SELECT, ScoringMode.of(" multi-select "));
+        assertEquals(ScoringMode.PARTIAL_CREDIT, ScoringMode.of("partial_credit"));
+        assertEquals(ScoringMode.NEGATIVE_MARKING, ScoringMode.of("NEGATIVE_MARKING"));
+        assertEquals(ScoringMode.SINGLE_CHOICE, ScoringMode.of("MULTIPLE_CHOICE"));
+        assertEquals(ScoringMode.SINGLE_CHOICE, ScoringMode.of(null));
+        assertTrue(ScoringMode.PARTIAL_CREDIT.allowsSeveralCorrect());
+        assertFalse(ScoringMode.NEGATIVE_MARKING.allowsSeveralCorrect());
+    }
+
+    private double grade(QuizSnapshot snapshot, AnswerDTO... answers) {
+        return engine.grade(snapshot, List.of(answers));
+    }
+
+    private static QuizSnapshot quiz(QuizSnapshot.QuestionEntry... questions) {
+        return new QuizSnapshot(1, 1, "Quiz", List.of(questions));
+    }
+
+    private static QuizSnapshot.QuestionEntry question(long id, ScoringMode mode, int optionCount, int... correct) {
+        QuizSnapshot.OptionEntry[] options = new QuizSnapshot.OptionEntry[optionCount];
+        for (int o = 0; o < optionCount; o++) {
+            boolean isCorrect = false;
+            for (int c : correct) {
+                isCorrect |= c == o;
+            }
+            options[o] = new QuizSnapshot.OptionEntry(optionId(id, o), "Option " + o, isCorrect);
+        }
+        return new QuizSnapshot.QuestionEntry(id, "Question " + id, mode.name(), options);
+    }
+
+    private static AnswerDTO answer(long questionId, int... positions) {
+        List<Long> optionIds = new ArrayList<>();
+        for (int position : positions) {
+            optionIds.add(optionId(questionId, position));
+        }
+        AnswerDTO answer = new AnswerDTO();
+        answer.setQuestionId(questionId);
+        answer.setSelectedOptionIds(optionIds);
+        return answer;
+    }
+
+    private static long optionId(long questionId, int position) {
+        return questionId * 1000 + position;
+    }
+}
@@ -0,0 +1,137 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.AnswerDTO;
+import com.examly.springapp.dto.QuizAttemptDTO;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.UnprocessableEntityException;
+import com.examly.springapp.journal.AttemptJournal;
+import com.examly.springapp.journal.ScoredAttempt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Retried submissions against a mocked attempt service: a replay returns the first result without
+ * scoring again, and a key reused for a different submission is rejected with 422.
+ */
+public class AttemptIdempotencyServiceTest {
+
+    private QuizAttemptService quizAttemptService;
+    private AttemptIdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        quizAttemptService = mock(QuizAttemptService.class);
+        idempotencyService = service();
+        when(quizAttemptService.findByIdempotencyKey(anyString(), anyString())).thenReturn(Optional.empty());
+        when(quizAttemptService.score(any(), anyString(), any())).thenAnswer(call -> new ScoredAttempt(
+                call.getArgument(1), call.getArgument(2), 1, "Quiz", "alice", 1, 1, 1, 0, List.of()));
+        when(quizAttemptService.store(any())).thenAnswer(call -> stored(42));
+    }
+
+    @Test
+    void replayReturnsTheFirstResultWithoutScoringAgain() {
+        QuizAttemptDTO first = idempotencyService.submit(submission("alice", 10), "key-1");
+        QuizAttemptDTO replay = idempotencyService.submit(submission("alice", 10), "key-1");
+
+        assertSame(first, replay);
+        verify(quizAttemptService, times(1)).score(any(), anyString(), any());
+        verify(quizAttemptService, times(1)).store(any());
+    }
+
+    @Test
+    void keyReusedForADifferentSubmissionIsRejected() {
+        idempotencyService.submit(submission("alice", 10), "key-1");
+
+        assertThrows(UnprocessableEntityException.class,
+                () -> idempotencyService.submit(submission("alice", 11), "key-1"));
+        verify(quizAttemptService, times(1)).store(any());
+    }
+
+    @Test
+    void sameKeyFromAnotherStudentIsAnotherSubmission() {
+        idempotencyService.submit(submission("alice", 10), "key-1");
+        idempotencyService.submit(submission("bob", 11), "key-1");
+
+        verify(quizAttemptService, times(2)).store(any());
+    }
+
+    @Test
+    void attemptStoredByAnotherInstanceIsReturned() {
+        QuizAttemptDTO request = submission("alice", 10);
+        String scopedKey = AttemptIdempotencyService.scope("alice", "key-1");
+        QuizAttemptDTO stored = stored(7);
+        when(quizAttemptService.findByIdempotencyKey(scopedKey, AttemptIdempotencyService.fingerprint(request)))
+                .thenReturn(Optional.of(stored));
+
+        assertSame(stored, idempotencyService.submit(request, "key-1"));
+        verify(quizAttemptService, never()).score(any(), anyString(), any());
+    }
+
+    @Test
+    void fingerprintIgnoresAnswerAndOptionOrder() {
+        QuizAttemptDTO forward = submission("alice", 10);
+        forward.setAnswers(List.of(answer(1, 10L, null), answer(2, null, List.of(20L, 21L))));
+        QuizAttemptDTO backward = submission("alice", 10);
+        backward.setAnswers(List.of(answer(2, null, List.of(21L, 20L)), answer(1, 10L, null)));
+
+        assertEquals(AttemptIdempotencyService.fingerprint(forward), AttemptIdempotencyService.fingerprint(backward));
+        AttemptIdempotencyService.checkSameRequest(null, AttemptIdempotencyService.fingerprint(forward));
+    }
+
+    @Test
+    void rejectsBlankAndOversizedKeys() {
+        assertThrows(BadRequestException.class, () -> idempotencyService.submit(submission("alice", 10), " "));
+        assertThrows(BadRequestException.class,
+                () -> idempotencyService.submit(submission("alice", 10), "k".repeat(256)));
+        verify(quizAttemptService, never()).score(any(), anyString(), any());
+    }
+
+    @Test
+    void submissionsWithoutAKeyGetAGeneratedOne() {
+        idempotencyService.submit(submission("alice", 10), null);
+        idempotencyService.submit(submission("alice", 10), null);
+
+        verify(quizAttemptService, times(2)).score(any(), startsWith("journal:"), eq(null));
+    }
+
+    private AttemptIdempotencyService service() {
+        AttemptIdempotencyService service = new AttemptIdempotencyService(100, Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(service, "quizAttemptService", quizAttemptService);
+        ReflectionTestUtils.setField(service, "attemptJournal", mock(AttemptJournal.class));
+        return service;
+    }
+
+    private static QuizAttemptDTO submission(String student, long optionId) {
+        QuizAttemptDTO dto = new QuizAttemptDTO();
+        dto.setQuizId(1L);
+        dto.setStudentName(student);
+        dto.setAnswers(List.of(answer(1, optionId, null)));
+        return dto;
+    }
+
+    private static AnswerDTO answer(long questionId, Long optionId, List<Long> optionIds) {
+        AnswerDTO answer = new AnswerDTO();
+        answer.setQuestionId(questionId);
+        answer.setSelectedOptionId(optionId);
+        answer.setSelectedOptionIds(optionIds);
+        return answer;
+    }
+
+    private static QuizAttemptDTO stored(long id) {
+        QuizAttemptDTO dto = new QuizAttemptDTO();
+        dto.setId(id);
+        return dto;
+    }
+}
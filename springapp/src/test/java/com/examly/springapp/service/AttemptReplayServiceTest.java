@@ -0,0 +1,107 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.QuizAttemptDTO;
+import com.examly.springapp.journal.AttemptJournal;
+import com.examly.springapp.journal.ScoredAttempt;
+import com.examly.springapp.model.AttemptAnswer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Replay of a real journal against a mocked database: attempts already stored under their
+ * idempotency key, e.g. before a crash between checkpointing and truncating the log, are skipped.
+ */
+public class AttemptReplayServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private AttemptJournal journal;
+    private QuizAttemptService quizAttemptService;
+    private AttemptReplayService replayService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = new AttemptJournal(new SimpleMeterRegistry(), true, dir.toString(), 16, 4);
+        invoke(journal, "open");
+        quizAttemptService = mock(QuizAttemptService.class);
+        replayService = new AttemptReplayService();
+        ReflectionTestUtils.setField(replayService, "attemptJournal", journal);
+        ReflectionTestUtils.setField(replayService, "quizAttemptService", quizAttemptService);
+        ReflectionTestUtils.setField(replayService, "batchSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.close();
+    }
+
+    @Test
+    void skipsAttemptsAlreadyStoredAndEmptiesTheLog() throws Exception {
+        journal.append(attempt("a"));
+        journal.append(attempt("b"));
+        journal.append(attempt("c"));
+        when(quizAttemptService.findByIdempotencyKey(any())).thenReturn(Optional.empty());
+        when(quizAttemptService.findByIdempotencyKey("a")).thenReturn(Optional.of(new QuizAttemptDTO()));
+        when(quizAttemptService.findByIdempotencyKey("b")).thenReturn(Optional.of(new QuizAttemptDTO()));
+
+        replayService.replay();
+
+        verify(quizAttemptService, never()).store(argThat(attempt -> !attempt.idempotencyKey().equals("c")));
+        verify(quizAttemptService, times(1)).store(argThat(attempt -> attempt.idempotencyKey().equals("c")));
+        assertFalse(journal.hasPending());
+        assertEquals(0, Files.size(dir.resolve("attempts.journal")));
+    }
+
+    @Test
+    void storeRacingWithAnotherWriterCountsAsStored() throws Exception {
+        journal.append(attempt("a"));
+        when(quizAttemptService.findByIdempotencyKey("a"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new QuizAttemptDTO()));
+        when(quizAttemptService.store(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        replayService.replay();
+
+        assertFalse(journal.hasPending());
+        assertFalse(Files.exists(dir.resolve("attempts.rejected")));
+    }
+
+    @Test
+    void replayingTwiceStoresEachAttemptOnce() throws Exception {
+        journal.append(attempt("a"));
+        when(quizAttemptService.findByIdempotencyKey("a")).thenReturn(Optional.empty());
+
+        replayService.replay();
+        replayService.replay();
+
+        verify(quizAttemptService, times(1)).store(any());
+    }
+
+    private static ScoredAttempt attempt(String key) {
+        return new ScoredAttempt(key, null, 1L, "Quiz", "alice", 1, 1.0, 1, 1_700_000_000_000L,
+                List.of(new AttemptAnswer(10L, 100L, true)));
+    }
+
+    private static void invoke(Object target, String method) throws Exception {
+        Method open = target.getClass().getDeclaredMethod(method);
+        open.setAccessible(true);
+        open.invoke(target);
+    }
+}
@@ -0,0 +1,128 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.model.DailyAttemptRollup;
+import com.examly.springapp.model.HourlyAttemptRollup;
+import com.examly.springapp.repository.DailyAttemptRollupRepository;
+import com.examly.springapp.repository.HourlyAttemptRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Flushing in-memory minute buckets into the hourly and daily rollup tables: minutes are summed per
+ * UTC bucket, the current minute is left alone, and totals that fail to write are kept for later.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AttemptRollupServiceTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY = 24 * HOUR;
+    private static final long QUIZ_ID = 7;
+
+    @Mock
+    private HourlyAttemptRollupRepository hourlyRepository;
+
+    @Mock
+    private DailyAttemptRollupRepository dailyRepository;
+
+    @InjectMocks
+    private AttemptRollupService rollupService;
+
+    @Test
+    void foldsMinutesIntoNewHourAndDayBuckets() {
+        long day = 20 * DAY;
+        rollupService.record(QUIZ_ID, 3, 5, day + 2 * HOUR + 60_000);
+        rollupService.record(QUIZ_ID, 4, 5, day + 2 * HOUR + 30 * 60_000);
+        rollupService.record(QUIZ_ID, 5, 5, day + 9 * HOUR);
+
+        rollupService.flushAll();
+
+        ArgumentCaptor<HourlyAttemptRollup> hours = ArgumentCaptor.forClass(HourlyAttemptRollup.class);
+        verify(hourlyRepository, times(2)).save(hours.capture());
+        HourlyAttemptRollup second = hours.getAllValues().stream()
+                .filter(rollup -> rollup.getBucketStart().getTime() == day + 2 * HOUR)
+                .findFirst().orElseThrow();
+        assertEquals(2, second.getAttempts());
+        assertEquals(7, second.getScoreSum());
+        assertEquals(10, second.getQuestionSum());
+        ArgumentCaptor<DailyAttemptRollup> days = ArgumentCaptor.forClass(DailyAttemptRollup.class);
+        verify(dailyRepository).save(days.capture());
+        assertEquals(new Date(day), days.getValue().getBucketStart());
+        assertEquals(3, days.getValue().getAttempts());
+        assertEquals(12, days.getValue().getScoreSum());
+    }
+
+    @Test
+    void existingBucketsAreIncremented() {
+        when(hourlyRepository.increment(QUIZ_ID, new Date(HOUR), 1, 2, 4)).thenReturn(1);
+        when(dailyRepository.increment(QUIZ_ID, new Date(0), 1, 2, 4)).thenReturn(1);
+        rollupService.record(QUIZ_ID, 2, 4, HOUR + 5);
+
+        rollupService.flushAll();
+
+        verify(hourlyRepository, never()).save(any());
+        verify(dailyRepository, never()).save(any());
+    }
+
+    @Test
+    void currentMinuteIsNotFlushed() {
+        rollupService.record(QUIZ_ID, 2, 4, System.currentTimeMillis());
+
+        rollupService.flush();
+
+        verifyNoInteractions(hourlyRepository, dailyRepository);
+    }
+
+    @Test
+    void failedWritesStayPendingForTheNextFlush() {
+        when(hourlyRepository.increment(anyLong(), any(), anyLong(), anyLong(), anyLong()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(1);
+        when(dailyRepository.increment(anyLong(), any(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+        rollupService.record(QUIZ_ID, 2, 4, HOUR);
+
+        rollupService.flushAll();
+        rollupService.flushAll();
+
+        verify(hourlyRepository, times(2)).increment(QUIZ_ID, new Date(HOUR), 1, 2, 4);
+        verify(dailyRepository, times(1)).increment(QUIZ_ID, new Date(0), 1, 2, 4);
+    }
+
+    @Test
+    void scoreCorrectionsNeverCreateBuckets() {
+        rollupService.adjustScore(QUIZ_ID, -1, HOUR);
+
+        rollupService.flushAll();
+
+        verify(hourlyRepository).increment(QUIZ_ID, new Date(HOUR), 0, -1, 0);
+        verify(hourlyRepository, never()).save(any());
+        verify(dailyRepository, never()).save(any());
+    }
+
+    @Test
+    void bucketCreatedConcurrentlyIsIncrementedInstead() {
+        when(hourlyRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate bucket"));
+        rollupService.record(QUIZ_ID, 2, 4, HOUR);
+
+        rollupService.flushAll();
+
+        verify(hourlyRepository, times(2)).increment(QUIZ_ID, new Date(HOUR), 1, 2, 4);
+    }
+
+    @Test
+    void rejectsUnknownGranularity() {
+        assertThrows(BadRequestException.class, () -> rollupService.getRollups("minute", null, null, null));
+    }
+}
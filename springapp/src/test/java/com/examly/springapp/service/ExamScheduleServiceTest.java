@@ -0,0 +1,126 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.cache.PaperCache;
+import com.examly.springapp.job.BackgroundJob;
+import com.examly.springapp.job.JobRegistry;
+import com.examly.springapp.model.ExamSchedule;
+import com.examly.springapp.model.Quiz;
+import com.examly.springapp.repository.ExamScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Preparation of exams opening within the lead time, with the background job run inline.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ExamScheduleServiceTest {
+
+    private static final long QUIZ_ID = 7;
+
+    @Mock
+    private ExamScheduleRepository examScheduleRepository;
+
+    @Mock
+    private QuestionService questionService;
+
+    @Mock
+    private PaperCache paperCache;
+
+    @Mock
+    private JobRegistry jobRegistry;
+
+    @InjectMocks
+    private ExamScheduleService examScheduleService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(examScheduleService, "leadTime", Duration.ofMinutes(15));
+        lenient().when(paperCache.maxPapers()).thenReturn(1000L);
+        when(jobRegistry.submit(anyString(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, Consumer.class).accept(mock(BackgroundJob.class));
+            return null;
+        });
+    }
+
+    @Test
+    void buildsAPaperForEveryStudentOnTheRoster() {
+        when(examScheduleRepository.findOpeningBefore(any(), any()))
+                .thenReturn(List.of(schedule(1, List.of("alice", "bob"))));
+
+        examScheduleService.prepareDueExams();
+
+        verify(questionService).getQuestionsByQuizId(QUIZ_ID);
+        verify(questionService).preparePaper(QUIZ_ID, "alice");
+        verify(questionService).preparePaper(QUIZ_ID, "bob");
+    }
+
+    @Test
+    void warmsOnlyTheSnapshotWithoutARoster() {
+        when(examScheduleRepository.findOpeningBefore(any(), any())).thenReturn(List.of(schedule(1, List.of())));
+
+        examScheduleService.prepareDueExams();
+
+        verify(questionService).getQuestionsByQuizId(QUIZ_ID);
+        verify(questionService, never()).preparePaper(anyLong(), any());
+    }
+
+    @Test
+    void preparesEachScheduleOnce() {
+        when(examScheduleRepository.findOpeningBefore(any(), any()))
+                .thenReturn(List.of(schedule(1, List.of("alice"))));
+
+        examScheduleService.prepareDueExams();
+        examScheduleService.prepareDueExams();
+
+        verify(jobRegistry, times(1)).submit(anyString(), any());
+    }
+
+    @Test
+    void preparesAgainAfterAFailedRun() {
+        when(examScheduleRepository.findOpeningBefore(any(), any()))
+                .thenReturn(List.of(schedule(1, List.of("alice"))));
+        when(questionService.preparePaper(eq(QUIZ_ID), any()))
+                .thenThrow(new IllegalStateException("boom"))
+                .thenReturn(null);
+
+        try {
+            examScheduleService.prepareDueExams();
+        } catch (IllegalStateException expected) {
+            // The job registry records the failure; here the job runs on the caller's thread.
+        }
+        examScheduleService.prepareDueExams();
+
+        verify(questionService, times(2)).preparePaper(QUIZ_ID, "alice");
+    }
+
+    private static ExamSchedule schedule(long id, List<String> roster) {
+        Date now = new Date();
+        return ExamSchedule.builder()
+                .id(id)
+                .quiz(Quiz.builder().id(QUIZ_ID).title("Exam").build())
+                .opensAt(new Date(now.getTime() + 60_000))
+                .closesAt(new Date(now.getTime() + 3_600_000))
+                .expectedRoster(30)
+                .roster(new ArrayList<>(roster))
+                .createdAt(now)
+                .build();
+    }
+}
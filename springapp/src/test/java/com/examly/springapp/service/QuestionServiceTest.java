@@ -0,0 +1,99 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.cache.PaperCache;
+import com.examly.springapp.cache.QuizSnapshot;
+import com.examly.springapp.cache.QuizSnapshotCache;
+import com.examly.springapp.cache.ShuffledPaper;
+import com.examly.springapp.cache.StudentIdentityFilter;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Paper caching on a miss: only registered students' papers are kept, and the registration lookup
+ * never fails the request, so submissions can still be scored and journaled while the database is down.
+ */
+@ExtendWith(MockitoExtension.class)
+public class QuestionServiceTest {
+
+    private static final long QUIZ_ID = 7;
+
+    @Mock
+    private QuizSnapshotCache quizSnapshotCache;
+
+    @Mock
+    private QuestionBankService questionBankService;
+
+    @Mock
+    private StudentIdentityFilter studentIdentityFilter;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Spy
+    private PaperCache paperCache = new PaperCache(100, Duration.ofHours(1));
+
+    @InjectMocks
+    private QuestionService questionService;
+
+    @BeforeEach
+    void setUp() {
+        QuizSnapshot snapshot = new QuizSnapshot(QUIZ_ID, 1, "Quiz", List.of());
+        lenient().when(quizSnapshotCache.get(QUIZ_ID)).thenReturn(snapshot);
+        lenient().when(questionBankService.resolve(any(), any())).thenReturn(snapshot);
+        lenient().when(studentIdentityFilter.mightHaveUsername(any())).thenReturn(true);
+    }
+
+    @Test
+    void cachesThePapersOfRegisteredStudents() {
+        when(studentRepository.existsByUsername("alice")).thenReturn(true);
+
+        ShuffledPaper paper = questionService.paper(QUIZ_ID, "alice");
+
+        assertSame(paper, paperCache.getIfPresent(QUIZ_ID, "alice"));
+        assertSame(paper, questionService.paper(QUIZ_ID, "alice"));
+        verify(studentRepository, times(1)).existsByUsername("alice");
+    }
+
+    @Test
+    void buildsButDoesNotCacheOtherPapers() {
+        when(studentIdentityFilter.mightHaveUsername("mallory")).thenReturn(false);
+
+        assertNotNull(questionService.paper(QUIZ_ID, "mallory"));
+
+        assertNull(paperCache.getIfPresent(QUIZ_ID, "mallory"));
+        verify(studentRepository, never()).existsByUsername(any());
+    }
+
+    @Test
+    void servesThePaperWhenTheRegistrationLookupFails() {
+        when(studentRepository.existsByUsername("alice"))
+                .thenThrow(new CannotGetJdbcConnectionException("Connection refused"));
+
+        ShuffledPaper paper = questionService.paper(QUIZ_ID, "alice");
+
+        assertEquals(QUIZ_ID, paper.getSnapshot().getQuizId());
+        assertNull(paperCache.getIfPresent(QUIZ_ID, "alice"));
+    }
+
+    @Test
+    void refusesPapersWithoutAStudent() {
+        assertThrows(BadRequestException.class, () -> questionService.paper(QUIZ_ID, null));
+        assertThrows(BadRequestException.class, () -> questionService.paper(QUIZ_ID, " "));
+        verifyNoInteractions(quizSnapshotCache);
+    }
+}
@@ -0,0 +1,138 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.archive.ArchivedAttempt;
+import com.examly.springapp.archive.AttemptSegmentStore;
+import com.examly.springapp.dto.JobStatusDTO;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ConflictException;
+import com.examly.springapp.job.BackgroundJob;
+import com.examly.springapp.job.JobRegistry;
+import com.examly.springapp.job.JobState;
+import com.examly.springapp.repository.AttemptRow;
+import com.examly.springapp.repository.QuizAttemptRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Grade reports as background jobs over a mocked attempt table and a real segment store: archived
+ * and live attempts end up in one CSV, chunks are paged by id, and a failed job leaves no file.
+ */
+public class ReportServiceTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @TempDir
+    Path dir;
+
+    private QuizAttemptRepository quizAttemptRepository;
+    private AttemptSegmentStore attemptSegmentStore;
+    private JobRegistry jobRegistry;
+    private ReportService reportService;
+
+    @BeforeEach
+    void setUp() {
+        quizAttemptRepository = mock(QuizAttemptRepository.class);
+        attemptSegmentStore = new AttemptSegmentStore(dir.resolve("archive").toString(), 10_000);
+        ReflectionTestUtils.invokeMethod(attemptSegmentStore, "open");
+        jobRegistry = new JobRegistry(1, Duration.ofHours(1));
+        reportService = new ReportService();
+        ReflectionTestUtils.setField(reportService, "quizAttemptRepository", quizAttemptRepository);
+        ReflectionTestUtils.setField(reportService, "attemptSegmentStore", attemptSegmentStore);
+        ReflectionTestUtils.setField(reportService, "jobRegistry", jobRegistry);
+        ReflectionTestUtils.setField(reportService, "reportsDir", dir.resolve("reports").toString());
+        ReflectionTestUtils.setField(reportService, "chunkSize", 2);
+    }
+
+    @Test
+    void reportMergesArchivedAndLiveAttempts() throws Exception {
+        attemptSegmentStore.commit(attemptSegmentStore.writeSegment(List.of(
+                new ArchivedAttempt(1, 10, "Old, archived", 100L, "alice", 3, 3.0, 5, 2 * HOUR),
+                new ArchivedAttempt(2, 10, "Old, archived", 101L, "bob", 4, null, 5, 9 * HOUR))));
+        List<AttemptRow> firstChunk = List.of(row(5, "carol"), row(6, "dave"));
+        List<AttemptRow> lastChunk = List.of(row(7, "erin"));
+        when(quizAttemptRepository.countByCompletedAtBetween(any(), any())).thenReturn(3L);
+        when(quizAttemptRepository.findRowsAfter(eq(0L), any(), any(), any())).thenReturn(firstChunk);
+        when(quizAttemptRepository.findRowsAfter(eq(6L), any(), any(), any())).thenReturn(lastChunk);
+
+        JobStatusDTO status = await(reportService.submitGradeReport(new Date(HOUR), new Date(3 * HOUR)));
+
+        assertEquals(JobState.COMPLETED.name(), status.getState());
+        assertEquals(4, status.getTotal());
+        assertEquals(4, status.getProcessed());
+        List<String> lines = Files.readAllLines(reportService.getResult(status.getId()).getFile().toPath(),
+                StandardCharsets.UTF_8);
+        assertEquals(List.of(
+                "attemptId,quizId,quizTitle,studentName,score,points,totalQuestions,completedAt",
+                "1,10,\"Old, archived\",alice,3,3.0,5,1970-01-01T02:00:00Z",
+                "5,11,Quiz,carol,1,1.0,2,1970-01-01T02:00:00Z",
+                "6,11,Quiz,dave,1,1.0,2,1970-01-01T02:00:00Z",
+                "7,11,Quiz,erin,1,1.0,2,1970-01-01T02:00:00Z"), lines);
+    }
+
+    @Test
+    void failedReportLeavesNoFileAndIsNotReady() throws Exception {
+        when(quizAttemptRepository.countByCompletedAtBetween(any(), any())).thenReturn(1L);
+        when(quizAttemptRepository.findRowsAfter(any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        JobStatusDTO status = await(reportService.submitGradeReport(null, null));
+
+        assertEquals(JobState.FAILED.name(), status.getState());
+        assertThrows(ConflictException.class, () -> reportService.getResult(status.getId()));
+        try (var files = Files.list(dir.resolve("reports"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void rejectsRangesThatEndBeforeTheyStart() {
+        assertThrows(BadRequestException.class,
+                () -> reportService.submitGradeReport(new Date(2 * HOUR), new Date(HOUR)));
+    }
+
+    @Test
+    void quotesOnlyValuesThatNeedIt() {
+        assertEquals("plain", ReportService.csv("plain"));
+        assertEquals("\"a,b\"", ReportService.csv("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", ReportService.csv("say \"hi\""));
+        assertEquals("", ReportService.csv(null));
+    }
+
+    private JobStatusDTO await(JobStatusDTO submitted) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            BackgroundJob job = jobRegistry.get(submitted.getId());
+            if (job.getState() == JobState.COMPLETED || job.getState() == JobState.FAILED) {
+                return reportService.getStatus(submitted.getId());
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Report did not finish");
+    }
+
+    private static AttemptRow row(long id, String student) {
+        AttemptRow row = mock(AttemptRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getQuizId()).thenReturn(11L);
+        when(row.getQuizTitle()).thenReturn("Quiz");
+        when(row.getStudentName()).thenReturn(student);
+        when(row.getScore()).thenReturn(1);
+        when(row.getPoints()).thenReturn(1.0);
+        when(row.getTotalQuestions()).thenReturn(2);
+        when(row.getCompletedAt()).thenReturn(new Date(2 * HOUR));
+        return row;
+    }
+}
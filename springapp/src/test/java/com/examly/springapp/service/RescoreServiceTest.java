@@ -0,0 +1,118 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.archive.AttemptSegmentStore;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ConflictException;
+import com.examly.springapp.job.JobLeases;
+import com.examly.springapp.job.JobRegistry;
+import com.examly.springapp.repository.QuizRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Answer-key corrections that cannot be applied everywhere are refused before anything is changed,
+ * and a refused correction leaves no rescore leases behind.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RescoreServiceTest {
+
+    private static final long QUIZ_ID = 7;
+    private static final long QUESTION_ID = 70;
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Mock
+    private QuestionService questionService;
+
+    @Mock
+    private AttemptSegmentStore attemptSegmentStore;
+
+    @Mock
+    private JobRegistry jobRegistry;
+
+    @Mock
+    private JobLeases jobLeases;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private RescoreService rescoreService;
+
+    @BeforeEach
+    void setUp() {
+        rescoreService = new RescoreService(1);
+        ReflectionTestUtils.setField(rescoreService, "quizRepository", quizRepository);
+        ReflectionTestUtils.setField(rescoreService, "questionService", questionService);
+        ReflectionTestUtils.setField(rescoreService, "attemptSegmentStore", attemptSegmentStore);
+        ReflectionTestUtils.setField(rescoreService, "jobRegistry", jobRegistry);
+        ReflectionTestUtils.setField(rescoreService, "jobLeases", jobLeases);
+        ReflectionTestUtils.setField(rescoreService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(rescoreService, "lease", Duration.ofHours(1));
+        when(questionService.answerKeyScope(QUIZ_ID, QUESTION_ID)).thenReturn(
+                new QuestionService.AnswerKeyScope(List.of(QUESTION_ID, 71L), List.of(QUIZ_ID, 8L), List.of(9L)));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class))).thenReturn(List.of(QUIZ_ID, 12L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        rescoreService.shutdown();
+    }
+
+    @Test
+    void refusesCorrectionsReachingArchivedAttempts() {
+        when(attemptSegmentStore.containsQuiz(anyLong())).thenAnswer(call -> call.getArgument(0).equals(12L));
+
+        assertThrows(ConflictException.class, () -> rescoreService.correctAnswerKey(QUIZ_ID, QUESTION_ID, List.of(1L)));
+
+        verify(questionService, never()).correctAnswerKey(anyLong(), anyList(), any());
+        verifyNoInteractions(jobLeases);
+    }
+
+    @Test
+    void refusesCorrectionsABankQuizMayHaveDrawn() {
+        when(attemptSegmentStore.containsQuiz(anyLong())).thenAnswer(call -> call.getArgument(0).equals(9L));
+
+        assertThrows(ConflictException.class, () -> rescoreService.correctAnswerKey(QUIZ_ID, QUESTION_ID, List.of(1L)));
+
+        verify(questionService, never()).correctAnswerKey(anyLong(), anyList(), any());
+    }
+
+    @Test
+    void releasesEveryReservedQuizWhenTheCorrectionFails() {
+        when(jobLeases.tryAcquire(anyString(), any())).thenReturn(true);
+        doThrow(new BadRequestException("Correct options must be options of the question"))
+                .when(questionService).correctAnswerKey(eq(QUESTION_ID), anyList(), any());
+
+        assertThrows(BadRequestException.class, () -> rescoreService.correctAnswerKey(QUIZ_ID, QUESTION_ID, List.of(1L)));
+
+        verify(jobLeases).release("rescore-7");
+        verify(jobLeases).release("rescore-8");
+        verify(jobLeases).release("rescore-12");
+        verifyNoInteractions(jobRegistry);
+    }
+
+    @Test
+    void refusesASecondRescoreOfTheSameQuiz() {
+        when(jobLeases.tryAcquire(eq("rescore-8"), any())).thenReturn(false);
+        when(jobLeases.tryAcquire(eq("rescore-7"), any())).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> rescoreService.correctAnswerKey(QUIZ_ID, QUESTION_ID, List.of(1L)));
+
+        verify(jobLeases).release("rescore-7");
+        verify(questionService, never()).correctAnswerKey(anyLong(), anyList(), any());
+    }
+}
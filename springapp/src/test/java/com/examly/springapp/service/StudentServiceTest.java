@@ -0,0 +1,93 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.cache.StudentIdentityFilter;
+import com.examly.springapp.model.Student;
+import com.examly.springapp.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Registration when the identity filter has not heard of a student another node just inserted:
+ * the unique constraint fires and the clash must be reported from the table, not the filter.
+ */
+@ExtendWith(MockitoExtension.class)
+public class StudentServiceTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private StudentIdentityFilter studentIdentityFilter;
+
+    @InjectMocks
+    private StudentService studentService;
+
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        student = new Student();
+        student.setUsername("alice");
+        student.setEmail("alice@example.com");
+        student.setPassword("secret");
+        lenient().when(passwordEncoder.encode(any())).thenReturn("encoded");
+        // The filter has never seen these values, as on a node that missed another node's insert.
+        lenient().when(studentIdentityFilter.mightHaveUsername(any())).thenReturn(false);
+        lenient().when(studentIdentityFilter.mightHaveEmail(any())).thenReturn(false);
+    }
+
+    @Test
+    void skipsExistenceQueriesForValuesTheFilterHasNeverSeen() {
+        Student saved = new Student();
+        saved.setUsername("alice");
+        saved.setEmail("alice@example.com");
+        when(studentRepository.save(student)).thenReturn(saved);
+
+        assertSame(saved, studentService.registerStudent(student));
+        verify(studentRepository, never()).existsByUsername(any());
+        verify(studentRepository, never()).existsByEmail(any());
+        verify(studentIdentityFilter).added("alice", "alice@example.com");
+    }
+
+    @Test
+    void reportsATakenUsernameFromTheTableAfterAUniqueViolation() {
+        when(studentRepository.save(student)).thenThrow(new DataIntegrityViolationException("unique"));
+        when(studentRepository.existsByUsername("alice")).thenReturn(true);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> studentService.registerStudent(student));
+        assertEquals("Username already exists", ex.getMessage());
+    }
+
+    @Test
+    void reportsATakenEmailFromTheTableAfterAUniqueViolation() {
+        when(studentRepository.save(student)).thenThrow(new DataIntegrityViolationException("unique"));
+        when(studentRepository.existsByUsername("alice")).thenReturn(false);
+        when(studentRepository.existsByEmail("alice@example.com")).thenReturn(true);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> studentService.registerStudent(student));
+        assertEquals("Email already exists", ex.getMessage());
+    }
+
+    @Test
+    void rethrowsTheViolationWhenNeitherValueIsTaken() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("other");
+        when(studentRepository.save(student)).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> studentService.registerStudent(student)));
+        verify(studentIdentityFilter, never()).added(any(), any());
+    }
+}
@@ -0,0 +1,160 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.QuizDTO;
+import com.examly.springapp.dto.SyncDTO;
+import com.examly.springapp.model.ContentChange;
+import com.examly.springapp.model.Quiz;
+import com.examly.springapp.model.QuizStatus;
+import com.examly.springapp.repository.ContentChangeRepository;
+import com.examly.springapp.repository.QuestionRepository;
+import com.examly.springapp.repository.QuizRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * The sync token over a mocked change log: it never moves past an entry that may not have settled,
+ * entries newer than the token are still sent, and tokens outside the retained log get a full sync.
+ */
+@ExtendWith(MockitoExtension.class)
+public class SyncServiceTest {
+
+    @Mock
+    private ContentChangeRepository contentChangeRepository;
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @Mock
+    private QuizService quizService;
+
+    @Mock
+    private QuestionService questionService;
+
+    @InjectMocks
+    private SyncService syncService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(syncService, "pageSize", 3);
+        ReflectionTestUtils.setField(syncService, "settleWindow", Duration.ofSeconds(10));
+        lenient().when(contentChangeRepository.findMinId()).thenReturn(3L);
+        lenient().when(contentChangeRepository.findMaxId()).thenReturn(20L);
+        lenient().when(quizRepository.findAllById(any())).thenAnswer(call -> ((Collection<Long>) call.getArgument(0))
+                .stream().map(id -> Quiz.builder().id(id).build()).toList());
+        lenient().when(quizService.convertToDTO(any())).thenAnswer(call -> {
+            QuizDTO dto = new QuizDTO();
+            dto.setId(call.<Quiz>getArgument(0).getId());
+            return dto;
+        });
+    }
+
+    @Test
+    void tokenStopsBeforeUnsettledEntriesThatAreStillSent() {
+        settledUpTo(6);
+        when(contentChangeRepository.findAfter(eq(5L), any())).thenReturn(List.of(quiz(6, 100), quiz(7, 101)));
+
+        SyncDTO sync = syncService.getChanges(5L);
+
+        assertEquals(6, sync.getToken());
+        assertFalse(sync.isMore());
+        assertEquals(List.of(100L, 101L), quizIds(sync));
+    }
+
+    @Test
+    void tokenNeverMovesBackwards() {
+        settledUpTo(2);
+        when(contentChangeRepository.findAfter(eq(5L), any())).thenReturn(List.of(quiz(6, 100)));
+
+        assertEquals(5, syncService.getChanges(5L).getToken());
+    }
+
+    @Test
+    void settledFullPageAsksForMore() {
+        settledUpTo(20);
+        when(contentChangeRepository.findAfter(eq(5L), any())).thenReturn(List.of(quiz(6, 100), quiz(7, 101), quiz(8, 102)));
+
+        SyncDTO sync = syncService.getChanges(5L);
+
+        assertEquals(8, sync.getToken());
+        assertTrue(sync.isMore());
+    }
+
+    @Test
+    void unsettledFullPageDoesNotAskForMore() {
+        settledUpTo(7);
+        when(contentChangeRepository.findAfter(eq(5L), any())).thenReturn(List.of(quiz(6, 100), quiz(7, 101), quiz(8, 102)));
+
+        SyncDTO sync = syncService.getChanges(5L);
+
+        assertEquals(7, sync.getToken());
+        assertFalse(sync.isMore());
+    }
+
+    @Test
+    void deletedQuizzesAreReportedWithoutTheirQuestions() {
+        settledUpTo(20);
+        ContentChange deleted = quiz(8, 100);
+        deleted.setDeleted(true);
+        when(contentChangeRepository.findAfter(eq(5L), any()))
+                .thenReturn(List.of(quiz(6, 100), question(7, 100, 1000), deleted));
+
+        SyncDTO sync = syncService.getChanges(5L);
+
+        assertEquals(List.of(100L), sync.getDeletedQuizIds());
+        assertTrue(sync.getQuizzes().isEmpty());
+        assertTrue(sync.getQuestions().isEmpty());
+        verifyNoInteractions(questionRepository);
+    }
+
+    @Test
+    void tokensOutsideTheRetainedLogGetAFullSync() {
+        settledUpTo(20);
+        when(quizRepository.findByStatus(QuizStatus.PUBLISHED)).thenReturn(List.of());
+
+        assertTrue(syncService.getChanges(null).isFull());
+        assertTrue(syncService.getChanges(1L).isFull());
+        assertTrue(syncService.getChanges(21L).isFull());
+        SyncDTO full = syncService.getChanges(0L);
+        assertTrue(full.isFull());
+        assertEquals(20, full.getToken());
+        verify(contentChangeRepository, never()).findAfter(anyLong(), any());
+    }
+
+    private void settledUpTo(long id) {
+        when(contentChangeRepository.findMaxIdBefore(any(Date.class))).thenReturn(id);
+    }
+
+    private static ContentChange quiz(long id, long quizId) {
+        return ContentChange.builder().id(id).entity(ContentChange.QUIZ).entityId(quizId).quizId(quizId)
+                .changedAt(new Date()).build();
+    }
+
+    private static ContentChange question(long id, long quizId, long questionId) {
+        return ContentChange.builder().id(id).entity(ContentChange.QUESTION).entityId(questionId).quizId(quizId)
+                .changedAt(new Date()).build();
+    }
+
+    private static List<Long> quizIds(SyncDTO sync) {
+        return sync.getQuizzes().stream().map(QuizDTO::getId).toList();
+    }
+}
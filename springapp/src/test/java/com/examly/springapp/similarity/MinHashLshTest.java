@@ -0,0 +1,83 @@
+package com.examly.springapp.similarity;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinHashLshTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void exactJaccardOfSortedSets() {
+        long[] a = {1, 2, 3, 4};
+        long[] b = {3, 4, 5, 6};
+        assertEquals(2, MinHashLsh.intersectionSize(a, b));
+        assertEquals(2.0 / 6, MinHashLsh.jaccard(a, b), 1e-9);
+        assertEquals(1.0, MinHashLsh.jaccard(a, a), 1e-9);
+        assertEquals(0.0, MinHashLsh.jaccard(new long[0], new long[0]), 1e-9);
+    }
+
+    @Test
+    void signatureAgreementEstimatesJaccard() {
+        MinHashLsh lsh = new MinHashLsh(50, 8, 42);
+        long[] a = features(0, 100);
+        long[] b = features(50, 150);
+        long[] sa = lsh.signature(a);
+        long[] sb = lsh.signature(b);
+        long agreeing = LongStream.range(0, sa.length).filter(i -> sa[(int) i] == sb[(int) i]).count();
+        assertEquals(MinHashLsh.jaccard(a, b), (double) agreeing / sa.length, 0.1);
+    }
+
+    @Test
+    void nearDuplicatesBecomeCandidatesAndUnrelatedSetsDoNot() {
+        MinHashLsh lsh = new MinHashLsh(20, 5, 7);
+        long[][] signatures = {
+                lsh.signature(features(0, 40)),
+                lsh.signature(features(1, 41)),
+                lsh.signature(features(1000, 1040)),
+        };
+
+        MinHashLsh.CandidatePairs candidates = lsh.candidatePairs(signatures, 10, pool);
+
+        assertEquals(Set.of(pair(0, 1)), candidates.pairs());
+        assertEquals(0, candidates.skippedBuckets());
+    }
+
+    @Test
+    void oversizedBucketsAreSkipped() {
+        MinHashLsh lsh = new MinHashLsh(4, 2, 7);
+        long[][] signatures = new long[5][];
+        Arrays.fill(signatures, lsh.signature(features(0, 10)));
+
+        MinHashLsh.CandidatePairs candidates = lsh.candidatePairs(signatures, 3, pool);
+
+        assertTrue(candidates.pairs().isEmpty());
+        assertEquals(4, candidates.skippedBuckets());
+    }
+
+    @Test
+    void featuresDependOnQuestionAndOption() {
+        assertNotEquals(MinHashLsh.feature(1, 2), MinHashLsh.feature(2, 1));
+        assertEquals(MinHashLsh.feature(3, 4), MinHashLsh.feature(3, 4));
+    }
+
+    private static long[] features(long from, long to) {
+        return LongStream.range(from, to).map(i -> MinHashLsh.feature(i, i % 4)).sorted().toArray();
+    }
+
+    private static long pair(int i, int j) {
+        return (long) i << 32 | j;
+    }
+}